@@ -0,0 +1,12 @@
+package com.signature.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches périodiques (récupération des fichiers orphelins)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,6 @@
 package com.signature.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,10 +25,16 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .authorizeHttpRequests(authz -> authz
+                // Async dispatches (SSE signing progress) were already authorized on the initial request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Public resources
                 .requestMatchers("/css/**", "/js/**", "/images/**", "/webjars/**", "/favicon.ico").permitAll()
                 // Authentication pages - permettre l'accès complet
                 .requestMatchers("/login", "/login/**", "/register", "/register/**", "/error").permitAll()
+                // Server-wide storage maintenance and figures
+                .requestMatchers("/api/storage/**").hasRole("ADMIN")
+                // Signing key inventory and metrics; reading them loads the keys if needed
+                .requestMatchers("/api/signing-keys/**", "/api/documents/test-certificate").hasRole("ADMIN")
                 // API endpoints (require authentication)
                 .requestMatchers("/api/**").authenticated()
                 // All other requests require authentication
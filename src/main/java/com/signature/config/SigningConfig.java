@@ -0,0 +1,62 @@
+package com.signature.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class SigningConfig {
+
+    /**
+     * Pool borné utilisé par la signature par lots : un thread par cœur par défaut,
+     * le thread appelant prend le relais lorsque la file est pleine.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor batchSigningExecutor(@Value("${signature.batch.pool-size:0}") int poolSize,
+                                                       @Value("${signature.batch.queue-capacity:1000}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("batch-sign-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Pool dédié aux tâches de signature asynchrones : les requêtes sont refusées
+     * plutôt que mises en attente indéfiniment lorsque la file est pleine.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor signingJobExecutor(@Value("${signature.jobs.pool-size:0}") int poolSize,
+                                                     @Value("${signature.jobs.queue-capacity:500}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("signing-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Pool de rendu des miniatures : peu de threads, car chaque rendu garde une page en mémoire.
+     * Les demandes sont refusées plutôt que mises en attente lorsque la file est pleine.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor thumbnailExecutor(@Value("${signature.thumbnails.pool-size:2}") int poolSize,
+                                                    @Value("${signature.thumbnails.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("thumbnail-");
+        return executor;
+    }
+}
@@ -1,5 +1,6 @@
 package com.signature.controller;
 
+import com.signature.dto.DocumentStats;
 import com.signature.entity.User;
 import com.signature.service.DocumentService;
 import com.signature.service.UserService;
@@ -83,9 +84,10 @@ public class AuthController {
             model.addAttribute("user", user);
             
             // Ajout des statistiques de documents pour l'utilisateur connecté
-            model.addAttribute("signedDocumentsCount", documentService.getSignedDocumentsCount());
-            model.addAttribute("unsignedDocumentsCount", documentService.getUnsignedDocumentsCount());
-            model.addAttribute("totalDocuments", documentService.getTotalDocuments());
+            DocumentStats stats = documentService.getStatistics();
+            model.addAttribute("signedDocumentsCount", stats.getSignedDocuments());
+            model.addAttribute("unsignedDocumentsCount", stats.getUnsignedDocuments());
+            model.addAttribute("totalDocuments", stats.getTotalDocuments());
         }
         return "dashboard";
     }
@@ -1,18 +1,49 @@
 package com.signature.controller;
 
+import com.signature.dto.BatchSignRequest;
+import com.signature.dto.BatchSignResult;
+import com.signature.dto.DocumentStats;
+import com.signature.dto.ExportRequest;
 import com.signature.entity.Document;
+import com.signature.service.BatchSigningService;
+import com.signature.service.DocumentExportService;
 import com.signature.service.DocumentService;
 import com.signature.service.SignatureService;
+import com.signature.service.SignatureVerificationService;
+import com.signature.service.SigningJob;
+import com.signature.service.SigningJobService;
+import com.signature.service.ThumbnailService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/documents")
@@ -25,6 +56,27 @@ public class DocumentController {
     @Autowired
     private DocumentService documentService;
 
+    @Autowired
+    private BatchSigningService batchSigningService;
+
+    @Autowired
+    private SigningJobService signingJobService;
+
+    @Autowired
+    private SignatureVerificationService signatureVerificationService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private DocumentExportService documentExportService;
+
+    @Value("${signature.download.max-age:365d}")
+    private Duration downloadMaxAge;
+
+    @Value("${signature.download.shared-cache:false}")
+    private boolean downloadSharedCache;
+
     @PostMapping("/upload")
     public ResponseEntity<?> uploadDocument(@RequestParam("file") MultipartFile file) {
         try {
@@ -46,48 +98,151 @@ public class DocumentController {
 
     @PostMapping("/{id}/sign")
     public ResponseEntity<?> signDocument(@PathVariable Long id, @RequestParam String signerName) {
+        Optional<Document> documentOpt = documentService.getDocumentById(id);
+        if (documentOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"Document not found\"}");
+        }
+        if (documentOpt.get().getIsSigned()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"Document is already signed\"}");
+        }
+
         try {
-            Document signedDocument = signatureService.signDocument(id, signerName);
-            return ResponseEntity.ok(signedDocument);
-        } catch (Exception e) {
-            // Return error in JSON format for proper client-side parsing
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+            // Signing runs on the job executor; the client polls or subscribes to the job
+            SigningJob job = signingJobService.submit(documentOpt.get(), signerName);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/signing-jobs/" + job.getId()))
+                .body(job);
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                 .contentType(MediaType.APPLICATION_JSON)
-                .body("{\"error\": \"Error signing document: " + e.getMessage().replace("\"", "'") + "\"}");
+                .body("{\"error\": \"Signing queue is full, please retry later\"}");
         }
     }
 
+    @PostMapping("/sign-batch")
+    public ResponseEntity<?> signDocuments(@Valid @RequestBody BatchSignRequest request) {
+        try {
+            List<BatchSignResult> results = batchSigningService.signDocuments(request.getDocumentIds(), request.getSignerName());
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage().replace("\"", "'") + "\"}");
+        }
+    }
+
+    /**
+     * Exporte les documents filtrés dans un ZIP écrit en flux dans la réponse.
+     * L'écriture se fait sur un thread asynchrone de Spring MVC, sans délai maximal (spring.mvc.async.request-timeout).
+     */
+    @PostMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDocuments(@RequestBody ExportRequest request) {
+        if (request.getUploadedFrom() != null && request.getUploadedTo() != null
+                && request.getUploadedFrom().isAfter(request.getUploadedTo())) {
+            // Same body type as the archive: Spring only streams entities declared as StreamingResponseBody
+            byte[] error = "{\"error\": \"uploadedFrom must be before uploadedTo\"}".getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write(error));
+        }
+
+        StreamingResponseBody body = out -> {
+            try {
+                documentExportService.writeZip(request, out);
+            } catch (IOException e) {
+                // Response already committed: the client sees a truncated archive
+                System.err.println("Error exporting documents: " + e.getMessage());
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/zip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("documents-export.zip").build().toString())
+            .cacheControl(CacheControl.noStore())
+            .body(body);
+    }
+
     @GetMapping
-    public ResponseEntity<List<Document>> getAllDocuments() {
-        List<Document> documents = documentService.getAllDocuments();
-        return ResponseEntity.ok(documents);
+    public ResponseEntity<?> getAllDocuments(@RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(documentService.getAllDocuments(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    /**
+     * Recherche dans le nom du fichier, le signataire et le sujet du certificat, par pertinence
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchDocuments(@RequestParam("q") String query,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(documentService.search(query, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
     }
 
     @GetMapping("/signed")
-    public ResponseEntity<List<Document>> getSignedDocuments() {
-        List<Document> documents = documentService.getSignedDocuments();
-        return ResponseEntity.ok(documents);
+    public ResponseEntity<?> getSignedDocuments(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(documentService.getSignedDocuments(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
     }
 
     @GetMapping("/unsigned")
-    public ResponseEntity<List<Document>> getUnsignedDocuments() {
-        List<Document> documents = documentService.getUnsignedDocuments();
-        return ResponseEntity.ok(documents);
+    public ResponseEntity<?> getUnsignedDocuments(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(documentService.getUnsignedDocuments(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getDocument(@PathVariable Long id) {
+    public ResponseEntity<?> getDocument(@PathVariable Long id, WebRequest webRequest) {
         Optional<Document> document = documentService.getDocumentById(id);
         if (document.isPresent()) {
-            return ResponseEntity.ok(document.get());
+            // Metadata only changes when the document is signed: revalidate on each use, cheaply
+            String etag = document.get().getIsSigned() ? document.get().getSignedContentHash() : document.get().getContentHash();
+            long lastModified = lastModified(document.get(), document.get().getIsSigned());
+            if (isNotModified(webRequest, etag, lastModified)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(document.get());
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
     @GetMapping("/{id}/download")
-    public ResponseEntity<byte[]> downloadDocument(@PathVariable Long id, 
-                                                  @RequestParam(defaultValue = "false") boolean signed) {
+    public ResponseEntity<Resource> downloadDocument(@PathVariable Long id,
+                                                     @RequestParam(defaultValue = "false") boolean signed,
+                                                     @RequestHeader HttpHeaders requestHeaders,
+                                                     WebRequest webRequest) {
         try {
             Optional<Document> documentOpt = documentService.getDocumentById(id);
             if (documentOpt.isEmpty()) {
@@ -95,7 +250,19 @@ public class DocumentController {
             }
 
             Document document = documentOpt.get();
-            byte[] content = signatureService.getDocumentContent(id, signed);
+            if (signed && !document.getIsSigned()) {
+                return ResponseEntity.notFound().build();
+            }
+            // Both files are immutable once written: validators come from the entity, not the file
+            String etag = signed ? document.getSignedContentHash() : document.getContentHash();
+            long lastModified = lastModified(document, signed);
+            CacheControl cacheControl = downloadCacheControl();
+            if (isNotModified(webRequest, etag, lastModified)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+            }
+
+            // Streamed from disk by the message converters: the file is never held on the heap
+            Resource content = signatureService.getDocumentContent(document, signed);
 
             String filename = signed ? 
                 document.getOriginalName().replace(".pdf", "_signed.pdf") : 
@@ -104,15 +271,128 @@ public class DocumentController {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
             headers.setContentDispositionFormData("attachment", filename);
+            headers.setLastModified(lastModified);
+            if (etag != null) {
+                headers.setETag("\"" + etag + "\"");
+            }
+            headers.setCacheControl(cacheControl);
 
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(content);
+            if (requestHeaders.getFirst(HttpHeaders.RANGE) != null
+                    && !ifRangeMatches(requestHeaders.getFirst(HttpHeaders.IF_RANGE), etag, lastModified)) {
+                // Stale If-Range: send the whole file. Spring skips Range handling for InputStreamResource
+                headers.setContentLength(content.contentLength());
+                return ResponseEntity.ok().headers(headers).body(new InputStreamResource(content.getInputStream()));
+            }
+
+            // Spring serves Range requests on Resource bodies as 206 regions (multipart for several ranges) or 416
+            return ResponseEntity.ok().headers(headers).body(content);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Miniature PNG d'une page (à partir de 1) de la version courante du document.
+     * L'URL reste la même après la signature : le navigateur revalide avec l'ETag à chaque affichage.
+     */
+    @GetMapping("/{id}/pages/{page}/thumbnail")
+    public ResponseEntity<?> getThumbnail(@PathVariable Long id,
+                                          @PathVariable int page,
+                                          @RequestParam(required = false) Integer width,
+                                          WebRequest webRequest) {
+        Optional<Document> documentOpt = documentService.getDocumentById(id);
+        if (documentOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Document document = documentOpt.get();
+        int requestedWidth = width != null ? width : thumbnailService.getDefaultWidth();
+        String etag = thumbnailService.cacheKey(document, page, requestedWidth);
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+
+        try {
+            Path thumbnail = thumbnailService.getThumbnail(document, page, requestedWidth);
+            return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_PNG)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(new FileSystemResource(thumbnail));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        } catch (TaskRejectedException | TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"Thumbnail rendering is busy, please retry later\"}");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"Error rendering thumbnail\"}");
+        }
+    }
+
+    /**
+     * Cache des téléchargements. Navigateur : le fichier est conservé {@code max-age} sans revalidation.
+     * Les fichiers sont réservés à leur propriétaire : {@code private} interdit les caches partagés,
+     * sauf si {@code signature.download.shared-cache} l'autorise ; {@code s-maxage=0} impose alors au proxy
+     * de revalider chaque requête auprès de l'application, qui contrôle les droits puis répond 304.
+     */
+    private CacheControl downloadCacheControl() {
+        CacheControl cacheControl = CacheControl.maxAge(downloadMaxAge).immutable();
+        return downloadSharedCache ? cacheControl.cachePublic().sMaxAge(Duration.ZERO) : cacheControl.cachePrivate();
+    }
+
+    private static long lastModified(Document document, boolean signed) {
+        LocalDateTime timestamp = signed && document.getSignedAt() != null ? document.getSignedAt() : document.getUploadedAt();
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Traite If-None-Match / If-Modified-Since sans ouvrir le fichier ; les documents anciens n'ont pas d'empreinte
+     */
+    private static boolean isNotModified(WebRequest webRequest, String etag, long lastModified) {
+        return etag != null ? webRequest.checkNotModified(etag, lastModified) : webRequest.checkNotModified(lastModified);
+    }
+
+    /**
+     * If-Range absent, égal à l'ETag fort du fichier ou à sa date de dernière modification (à la seconde près)
+     */
+    private boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Weak validators never match for byte ranges
+            return etag != null && ifRange.equals("\"" + etag + "\"");
+        }
+        try {
+            long validator = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return validator / 1000 == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    @GetMapping("/{id}/verify")
+    public ResponseEntity<?> verifyDocument(@PathVariable Long id) {
+        Optional<Document> documentOpt = documentService.getDocumentById(id);
+        if (documentOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"Document not found\"}");
+        }
+        try {
+            return ResponseEntity.ok(signatureVerificationService.verifyDocument(documentOpt.get()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"Error verifying document: " + e.getMessage().replace("\"", "'") + "\"}");
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteDocument(@PathVariable Long id) {
         try {
@@ -133,16 +413,8 @@ public class DocumentController {
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<?> getStats() {
-        long totalDocs = documentService.getTotalDocuments();
-        long signedDocs = documentService.getSignedDocumentsCount();
-        long unsignedDocs = totalDocs - signedDocs;
-        
-        return ResponseEntity.ok(new Object() {
-            public final long totalDocuments = totalDocs;
-            public final long signedDocuments = signedDocs;
-            public final long unsignedDocuments = unsignedDocs;
-        });
+    public ResponseEntity<DocumentStats> getStats() {
+        return ResponseEntity.ok(documentService.getStatistics());
     }
     
     @GetMapping("/test-certificate")
@@ -0,0 +1,39 @@
+package com.signature.controller;
+
+import com.signature.service.SigningJob;
+import com.signature.service.SigningJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/signing-jobs")
+@CrossOrigin(origins = "*")
+public class SigningJobController {
+
+    @Autowired
+    private SigningJobService signingJobService;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable String id) {
+        Optional<SigningJob> job = signingJobService.getJob(id);
+        if (job.isPresent()) {
+            return ResponseEntity.ok(job.get());
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String id) {
+        Optional<SigningJob> job = signingJobService.getJob(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(signingJobService.subscribe(job.get()));
+    }
+}
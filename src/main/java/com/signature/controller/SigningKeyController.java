@@ -0,0 +1,28 @@
+package com.signature.controller;
+
+import com.signature.service.SignerContextProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/signing-keys")
+@CrossOrigin(origins = "*")
+public class SigningKeyController {
+
+    @Autowired
+    private SignerContextProvider signerContextProvider;
+
+    @GetMapping
+    public ResponseEntity<?> getSigningKeys() {
+        try {
+            return ResponseEntity.ok(signerContextProvider.getKeyStatuses());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage().replace("\"", "'") + "\"}");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.signature.controller;
+
+import com.signature.dto.StorageReclaimReport;
+import com.signature.service.StorageReclaimer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/storage")
+@CrossOrigin(origins = "*")
+public class StorageController {
+
+    @Autowired
+    private StorageReclaimer storageReclaimer;
+
+    /**
+     * Bilan du dernier passage du récupérateur de fichiers orphelins
+     */
+    @GetMapping("/reclaimer")
+    public ResponseEntity<?> getReclaimerReport() {
+        StorageReclaimReport report = storageReclaimer.getLastReport();
+        if (report != null) {
+            return ResponseEntity.ok(report);
+        } else {
+            return ResponseEntity.noContent().build();
+        }
+    }
+
+    @PostMapping("/reclaimer/run")
+    public ResponseEntity<?> runReclaimer() {
+        try {
+            return ResponseEntity.ok(storageReclaimer.run());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"Error reclaiming storage: " + e.getMessage() + "\"}");
+        }
+    }
+}
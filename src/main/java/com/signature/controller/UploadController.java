@@ -0,0 +1,142 @@
+package com.signature.controller;
+
+import com.signature.entity.Document;
+import com.signature.service.UploadSession;
+import com.signature.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Envoi reprenable par morceaux : POST crée la session, PUT envoie chaque plage d'octets
+ * avec un en-tête Content-Range, GET indique où reprendre, POST /commit crée le document.
+ */
+@RestController
+@RequestMapping("/api/uploads")
+@CrossOrigin(origins = "*")
+public class UploadController {
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+
+    @Autowired
+    private UploadSessionService uploadSessionService;
+
+    @PostMapping
+    public ResponseEntity<?> createSession(@RequestParam String fileName,
+                                           @RequestParam long size,
+                                           @RequestParam(defaultValue = MediaType.APPLICATION_PDF_VALUE) String contentType) {
+        if (!contentType.equals(MediaType.APPLICATION_PDF_VALUE)) {
+            return ResponseEntity.badRequest().body("Only PDF files are supported");
+        }
+        try {
+            UploadSession session = uploadSessionService.create(fileName, contentType, size);
+            return ResponseEntity.created(URI.create("/api/uploads/" + session.getId())).body(session);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        } catch (IllegalStateException e) {
+            // Open session limit reached: finishing or aborting an upload frees a slot
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error creating upload: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getSession(@PathVariable String id) {
+        Optional<UploadSession> session = uploadSessionService.getSession(id);
+        if (session.isPresent()) {
+            return ResponseEntity.ok(session.get());
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Reçoit la plage "bytes début-fin/taille" ; en cas de conflit, la réponse indique la position attendue
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<?> uploadChunk(@PathVariable String id,
+                                         @RequestHeader("Content-Range") String contentRange,
+                                         HttpServletRequest request) {
+        Optional<UploadSession> sessionOpt = uploadSessionService.getSession(id);
+        if (sessionOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        UploadSession session = sessionOpt.get();
+
+        Matcher range = CONTENT_RANGE.matcher(contentRange.trim());
+        if (!range.matches() || Long.parseLong(range.group(3)) != session.getSize()
+                || Long.parseLong(range.group(2)) < Long.parseLong(range.group(1))) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"Invalid Content-Range, expected bytes start-end/" + session.getSize() + "\"}");
+        }
+        long start = Long.parseLong(range.group(1));
+        long length = Long.parseLong(range.group(2)) - start + 1;
+
+        try {
+            return ResponseEntity.ok(uploadSessionService.writeChunk(session, start, length, request.getInputStream()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\", \"offset\": " + session.getOffset() + "}");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"Error writing chunk: " + e.getMessage() + "\", \"offset\": " + session.getOffset() + "}");
+        }
+    }
+
+    @PostMapping("/{id}/commit")
+    public ResponseEntity<?> commit(@PathVariable String id) {
+        Optional<UploadSession> session = uploadSessionService.getSession(id);
+        if (session.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            Document document = uploadSessionService.commit(session.get());
+            return ResponseEntity.ok(document);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error uploading document: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> abort(@PathVariable String id) {
+        Optional<UploadSession> session = uploadSessionService.getSession(id);
+        if (session.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            uploadSessionService.abort(session.get());
+            return ResponseEntity.noContent().build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.signature.controller;
+
+import com.signature.dto.VerificationResult;
+import com.signature.service.SignatureVerificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/verify")
+@CrossOrigin(origins = "*")
+public class VerificationController {
+
+    @Autowired
+    private SignatureVerificationService signatureVerificationService;
+
+    @Value("${signature.verification.max-files:50}")
+    private int maxFiles;
+
+    /**
+     * Vérifie plusieurs PDF envoyés en multipart ; les résultats suivent l'ordre des fichiers
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> verifyFiles(@RequestParam("files") List<MultipartFile> files) {
+        if (files.isEmpty() || files.size() > maxFiles) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"Between 1 and " + maxFiles + " files are accepted\"}");
+        }
+        try {
+            List<VerificationResult> results = new ArrayList<>();
+            for (MultipartFile file : files) {
+                results.add(signatureVerificationService.verify(file));
+            }
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"Error verifying files: " + e.getMessage().replace("\"", "'") + "\"}");
+        }
+    }
+}
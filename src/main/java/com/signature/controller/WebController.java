@@ -1,11 +1,13 @@
 package com.signature.controller;
 
+import com.signature.dto.DocumentPage;
 import com.signature.service.DocumentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @Controller
 public class WebController {
@@ -21,28 +23,35 @@ public class WebController {
     }
 
     @GetMapping("/documents")
-    public String documentsPage(Model model) {
-        model.addAttribute("documents", documentService.getAllDocuments());
+    public String documentsPage(@RequestParam(required = false) String cursor, Model model) {
+        addPage(model, "documents", documentService.getAllDocuments(cursor, null), "/documents", cursor);
         return "documents";
     }
 
     @GetMapping("/documents/signed")
-    public String signedDocumentsPage(Model model) {
-        model.addAttribute("documents", documentService.getSignedDocuments());
+    public String signedDocumentsPage(@RequestParam(required = false) String cursor, Model model) {
+        addPage(model, "documents", documentService.getSignedDocuments(cursor, null), "/documents/signed", cursor);
         model.addAttribute("pageTitle", "Documents Signés");
         return "documents";
     }
 
     @GetMapping("/documents/unsigned")
-    public String unsignedDocumentsPage(Model model) {
-        model.addAttribute("documents", documentService.getUnsignedDocuments());
+    public String unsignedDocumentsPage(@RequestParam(required = false) String cursor, Model model) {
+        addPage(model, "documents", documentService.getUnsignedDocuments(cursor, null), "/documents/unsigned", cursor);
         model.addAttribute("pageTitle", "Documents Non Signés");
         return "documents";
     }
 
     @GetMapping("/history")
-    public String historyPage(Model model) {
-        model.addAttribute("signedDocuments", documentService.getSignedDocuments());
+    public String historyPage(@RequestParam(required = false) String cursor, Model model) {
+        addPage(model, "signedDocuments", documentService.getSignedDocuments(cursor, null), "/history", cursor);
         return "history";
     }
+
+    private void addPage(Model model, String attribute, DocumentPage page, String pagePath, String cursor) {
+        model.addAttribute(attribute, page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("pagePath", pagePath);
+        model.addAttribute("firstPage", cursor == null || cursor.isBlank());
+    }
 }
@@ -0,0 +1,21 @@
+package com.signature.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class BatchSignRequest {
+
+    @NotEmpty(message = "La liste des documents est obligatoire")
+    private List<Long> documentIds;
+
+    @NotBlank(message = "Le nom du signataire est obligatoire")
+    private String signerName;
+
+    public List<Long> getDocumentIds() { return documentIds; }
+    public void setDocumentIds(List<Long> documentIds) { this.documentIds = documentIds; }
+
+    public String getSignerName() { return signerName; }
+    public void setSignerName(String signerName) { this.signerName = signerName; }
+}
@@ -0,0 +1,45 @@
+package com.signature.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Résultat de la signature d'un document au sein d'un lot
+ */
+public class BatchSignResult {
+
+    public enum Status {
+        SIGNED, NOT_FOUND, FAILED
+    }
+
+    private final Long documentId;
+    private final Status status;
+    private final String error;
+    private final LocalDateTime signedAt;
+
+    private BatchSignResult(Long documentId, Status status, String error, LocalDateTime signedAt) {
+        this.documentId = documentId;
+        this.status = status;
+        this.error = error;
+        this.signedAt = signedAt;
+    }
+
+    public static BatchSignResult signed(Long documentId, LocalDateTime signedAt) {
+        return new BatchSignResult(documentId, Status.SIGNED, null, signedAt);
+    }
+
+    public static BatchSignResult notFound(Long documentId) {
+        return new BatchSignResult(documentId, Status.NOT_FOUND, "Document not found", null);
+    }
+
+    public static BatchSignResult failed(Long documentId, String error) {
+        return new BatchSignResult(documentId, Status.FAILED, error, null);
+    }
+
+    public Long getDocumentId() { return documentId; }
+
+    public Status getStatus() { return status; }
+
+    public String getError() { return error; }
+
+    public LocalDateTime getSignedAt() { return signedAt; }
+}
@@ -0,0 +1,25 @@
+package com.signature.dto;
+
+import java.util.List;
+
+/**
+ * Page d'une liste de documents ; nextCursor est absent sur la dernière page
+ */
+public class DocumentPage {
+
+    private final List<DocumentSummary> items;
+    private final String nextCursor;
+    private final int size;
+
+    public DocumentPage(List<DocumentSummary> items, String nextCursor, int size) {
+        this.items = List.copyOf(items);
+        this.nextCursor = nextCursor;
+        this.size = size;
+    }
+
+    public List<DocumentSummary> getItems() { return items; }
+
+    public String getNextCursor() { return nextCursor; }
+
+    public int getSize() { return size; }
+}
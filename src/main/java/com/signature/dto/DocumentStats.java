@@ -0,0 +1,21 @@
+package com.signature.dto;
+
+/**
+ * Compteurs de documents d'un utilisateur
+ */
+public class DocumentStats {
+
+    private final long totalDocuments;
+    private final long signedDocuments;
+
+    public DocumentStats(Long totalDocuments, Long signedDocuments) {
+        this.totalDocuments = totalDocuments != null ? totalDocuments : 0;
+        this.signedDocuments = signedDocuments != null ? signedDocuments : 0;
+    }
+
+    public long getTotalDocuments() { return totalDocuments; }
+
+    public long getSignedDocuments() { return signedDocuments; }
+
+    public long getUnsignedDocuments() { return totalDocuments - signedDocuments; }
+}
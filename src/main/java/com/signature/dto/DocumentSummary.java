@@ -0,0 +1,57 @@
+package com.signature.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ligne d'une liste de documents, lue directement par projection : sans entité gérée,
+ * ni chemins de stockage, ni utilisateur
+ */
+public class DocumentSummary {
+
+    private final Long id;
+    private final String originalName;
+    private final Long fileSize;
+    private final String contentType;
+    private final Boolean isSigned;
+    private final LocalDateTime uploadedAt;
+    private final LocalDateTime signedAt;
+    private final String signerName;
+    private final String certificateSubject;
+    private final String signatureAlgorithm;
+
+    public DocumentSummary(Long id, String originalName, Long fileSize, String contentType, Boolean isSigned,
+                           LocalDateTime uploadedAt, LocalDateTime signedAt, String signerName,
+                           String certificateSubject, String signatureAlgorithm) {
+        this.id = id;
+        this.originalName = originalName;
+        this.fileSize = fileSize;
+        this.contentType = contentType;
+        this.isSigned = isSigned;
+        this.uploadedAt = uploadedAt;
+        this.signedAt = signedAt;
+        this.signerName = signerName;
+        this.certificateSubject = certificateSubject;
+        this.signatureAlgorithm = signatureAlgorithm;
+    }
+
+    public Long getId() { return id; }
+
+    public String getOriginalName() { return originalName; }
+
+    public Long getFileSize() { return fileSize; }
+
+    public String getContentType() { return contentType; }
+
+    // Same property name as Document, for the templates and JSON clients
+    public Boolean getIsSigned() { return isSigned; }
+
+    public LocalDateTime getUploadedAt() { return uploadedAt; }
+
+    public LocalDateTime getSignedAt() { return signedAt; }
+
+    public String getSignerName() { return signerName; }
+
+    public String getCertificateSubject() { return certificateSubject; }
+
+    public String getSignatureAlgorithm() { return signatureAlgorithm; }
+}
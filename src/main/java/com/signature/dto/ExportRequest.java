@@ -0,0 +1,30 @@
+package com.signature.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtre d'export ; les critères absents ne filtrent pas
+ */
+public class ExportRequest {
+
+    // true = signed documents only, false = unsigned only
+    private Boolean signed;
+
+    private LocalDateTime uploadedFrom;
+
+    private LocalDateTime uploadedTo;
+
+    private String signerName;
+
+    public Boolean getSigned() { return signed; }
+    public void setSigned(Boolean signed) { this.signed = signed; }
+
+    public LocalDateTime getUploadedFrom() { return uploadedFrom; }
+    public void setUploadedFrom(LocalDateTime uploadedFrom) { this.uploadedFrom = uploadedFrom; }
+
+    public LocalDateTime getUploadedTo() { return uploadedTo; }
+    public void setUploadedTo(LocalDateTime uploadedTo) { this.uploadedTo = uploadedTo; }
+
+    public String getSignerName() { return signerName; }
+    public void setSignerName(String signerName) { this.signerName = signerName; }
+}
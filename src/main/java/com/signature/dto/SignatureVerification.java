@@ -0,0 +1,64 @@
+package com.signature.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Résultat de la vérification d'une signature d'un PDF
+ */
+public class SignatureVerification {
+
+    private final String signerName;
+    private final String certificateSubject;
+    private final String signatureAlgorithm;
+    private final LocalDateTime signedAt;
+    private final boolean cmsValid;
+    private final boolean byteRangeValid;
+    private final boolean coversWholeDocument;
+    private final boolean certificateValid;
+    private final boolean trusted;
+    private final String error;
+
+    public SignatureVerification(String signerName, String certificateSubject, String signatureAlgorithm,
+                                 LocalDateTime signedAt, boolean cmsValid, boolean byteRangeValid,
+                                 boolean coversWholeDocument, boolean certificateValid, boolean trusted,
+                                 String error) {
+        this.signerName = signerName;
+        this.certificateSubject = certificateSubject;
+        this.signatureAlgorithm = signatureAlgorithm;
+        this.signedAt = signedAt;
+        this.cmsValid = cmsValid;
+        this.byteRangeValid = byteRangeValid;
+        this.coversWholeDocument = coversWholeDocument;
+        this.certificateValid = certificateValid;
+        this.trusted = trusted;
+        this.error = error;
+    }
+
+    public String getSignerName() { return signerName; }
+
+    public String getCertificateSubject() { return certificateSubject; }
+
+    public String getSignatureAlgorithm() { return signatureAlgorithm; }
+
+    public LocalDateTime getSignedAt() { return signedAt; }
+
+    public boolean isCmsValid() { return cmsValid; }
+
+    public boolean isByteRangeValid() { return byteRangeValid; }
+
+    public boolean isCoversWholeDocument() { return coversWholeDocument; }
+
+    /**
+     * Certificat du signataire dans sa période de validité à la date de signature
+     */
+    public boolean isCertificateValid() { return certificateValid; }
+
+    /**
+     * Certificat du signataire rattaché à une clé de signature du service ou à un certificat de confiance configuré
+     */
+    public boolean isTrusted() { return trusted; }
+
+    public String getError() { return error; }
+
+    public boolean isValid() { return cmsValid && byteRangeValid && certificateValid && trusted; }
+}
@@ -0,0 +1,50 @@
+package com.signature.dto;
+
+import java.util.Date;
+
+/**
+ * État et compteurs d'une clé de signature du pool
+ */
+public class SigningKeyStatus {
+
+    private final String name;
+    private final String certificateSubject;
+    private final String signatureAlgorithm;
+    private final Date notAfter;
+    private final int maxConcurrency;
+    private final int inFlight;
+    private final long signed;
+    private final long failed;
+    private final long averageMillis;
+
+    public SigningKeyStatus(String name, String certificateSubject, String signatureAlgorithm, Date notAfter,
+                            int maxConcurrency, int inFlight, long signed, long failed, long averageMillis) {
+        this.name = name;
+        this.certificateSubject = certificateSubject;
+        this.signatureAlgorithm = signatureAlgorithm;
+        this.notAfter = notAfter;
+        this.maxConcurrency = maxConcurrency;
+        this.inFlight = inFlight;
+        this.signed = signed;
+        this.failed = failed;
+        this.averageMillis = averageMillis;
+    }
+
+    public String getName() { return name; }
+
+    public String getCertificateSubject() { return certificateSubject; }
+
+    public String getSignatureAlgorithm() { return signatureAlgorithm; }
+
+    public Date getNotAfter() { return notAfter; }
+
+    public int getMaxConcurrency() { return maxConcurrency; }
+
+    public int getInFlight() { return inFlight; }
+
+    public long getSigned() { return signed; }
+
+    public long getFailed() { return failed; }
+
+    public long getAverageMillis() { return averageMillis; }
+}
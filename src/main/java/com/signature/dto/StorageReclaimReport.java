@@ -0,0 +1,65 @@
+package com.signature.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bilan d'un passage du récupérateur de fichiers orphelins
+ */
+public class StorageReclaimReport {
+
+    private final LocalDateTime startedAt;
+    private final LocalDateTime finishedAt;
+    private final int firstShard;
+    private final int nextShard;
+    private final int shardCount;
+    private final long filesScanned;
+    private final long orphansFound;
+    private final long quarantinedBytes;
+    private final long temporaryFilesDeleted;
+    private final long bytesReclaimed;
+    private final long totalBytesReclaimed;
+
+    public StorageReclaimReport(LocalDateTime startedAt, LocalDateTime finishedAt, int firstShard, int nextShard,
+                                int shardCount, long filesScanned, long orphansFound, long quarantinedBytes,
+                                long temporaryFilesDeleted, long bytesReclaimed, long totalBytesReclaimed) {
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.firstShard = firstShard;
+        this.nextShard = nextShard;
+        this.shardCount = shardCount;
+        this.filesScanned = filesScanned;
+        this.orphansFound = orphansFound;
+        this.quarantinedBytes = quarantinedBytes;
+        this.temporaryFilesDeleted = temporaryFilesDeleted;
+        this.bytesReclaimed = bytesReclaimed;
+        this.totalBytesReclaimed = totalBytesReclaimed;
+    }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+
+    public int getFirstShard() { return firstShard; }
+
+    /**
+     * Point de reprise du prochain passage
+     */
+    public int getNextShard() { return nextShard; }
+
+    public int getShardCount() { return shardCount; }
+
+    public long getFilesScanned() { return filesScanned; }
+
+    public long getOrphansFound() { return orphansFound; }
+
+    public long getQuarantinedBytes() { return quarantinedBytes; }
+
+    public long getTemporaryFilesDeleted() { return temporaryFilesDeleted; }
+
+    public long getBytesReclaimed() { return bytesReclaimed; }
+
+    /**
+     * Octets libérés depuis le démarrage de l'application
+     */
+    public long getTotalBytesReclaimed() { return totalBytesReclaimed; }
+}
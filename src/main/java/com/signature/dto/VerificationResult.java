@@ -0,0 +1,45 @@
+package com.signature.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Résultat de la vérification de toutes les signatures d'un fichier PDF, identifié par son SHA-256.
+ * Immuable : une même instance est servie depuis le cache pour un contenu inchangé.
+ */
+public class VerificationResult {
+
+    private final String sha256;
+    private final long fileSize;
+    private final List<SignatureVerification> signatures;
+    private final String error;
+    private final LocalDateTime verifiedAt;
+
+    public VerificationResult(String sha256, long fileSize, List<SignatureVerification> signatures, String error) {
+        this.sha256 = sha256;
+        this.fileSize = fileSize;
+        this.signatures = List.copyOf(signatures);
+        this.error = error;
+        this.verifiedAt = LocalDateTime.now();
+    }
+
+    public String getSha256() { return sha256; }
+
+    public long getFileSize() { return fileSize; }
+
+    public List<SignatureVerification> getSignatures() { return signatures; }
+
+    public String getError() { return error; }
+
+    public LocalDateTime getVerifiedAt() { return verifiedAt; }
+
+    /**
+     * Valide si le fichier porte au moins une signature, que toutes sont valides
+     * et que la dernière couvre le fichier entier (aucun ajout non signé)
+     */
+    public boolean isValid() {
+        return error == null && !signatures.isEmpty()
+            && signatures.stream().allMatch(SignatureVerification::isValid)
+            && signatures.get(signatures.size() - 1).isCoversWholeDocument();
+    }
+}
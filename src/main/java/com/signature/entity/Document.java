@@ -5,7 +5,12 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+    // Lookups by storage key when reconciling the store against this table
+    @Index(name = "idx_documents_file_path", columnList = "filePath"),
+    @Index(name = "idx_documents_signed_file_path", columnList = "signedFilePath")
+    // Per-user listing indexes (partial, descending) are only declared in db/migration
+})
 public class Document {
     
     @Id
@@ -18,12 +23,18 @@ public class Document {
     @Column(nullable = false)
     private String fileName;
     
+    // Storage locations change on migration and archiving: kept out of the JSON validated by the content hash
     @Column(nullable = false)
+    @JsonIgnore
     private String filePath;
     
     @Column(nullable = false)
     private Long fileSize;
     
+    // SHA-256 of the uploaded content, key of the shared blob in filePath (null for legacy files)
+    @Column(length = 64)
+    private String contentHash;
+    
     @Column(nullable = false)
     private String contentType;
     
@@ -31,8 +42,13 @@ public class Document {
     private Boolean isSigned = false;
     
     @Column
+    @JsonIgnore
     private String signedFilePath;
     
+    // SHA-256 of the signed file, computed while it is written
+    @Column(length = 64)
+    private String signedContentHash;
+    
     @Column
     private LocalDateTime signedAt;
     
@@ -83,6 +99,9 @@ public class Document {
     public Long getFileSize() { return fileSize; }
     public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
 
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
     public String getContentType() { return contentType; }
     public void setContentType(String contentType) { this.contentType = contentType; }
 
@@ -92,6 +111,9 @@ public class Document {
     public String getSignedFilePath() { return signedFilePath; }
     public void setSignedFilePath(String signedFilePath) { this.signedFilePath = signedFilePath; }
 
+    public String getSignedContentHash() { return signedContentHash; }
+    public void setSignedContentHash(String signedContentHash) { this.signedContentHash = signedContentHash; }
+
     public LocalDateTime getSignedAt() { return signedAt; }
     public void setSignedAt(LocalDateTime signedAt) { this.signedAt = signedAt; }
 
@@ -0,0 +1,64 @@
+package com.signature.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Emplacement du fichier signé d'un document archivé dans un fichier pack :
+ * les {@code length} octets à partir de {@code offset} dans {@code packName}.
+ */
+@Entity
+@Table(name = "pack_entries")
+public class PackEntry {
+
+    @Id
+    private Long documentId;
+
+    @Column(nullable = false, length = 64)
+    private String packName;
+
+    @Column(name = "pack_offset", nullable = false)
+    private Long offset;
+
+    @Column(nullable = false)
+    private Long length;
+
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public PackEntry() {
+        this.archivedAt = LocalDateTime.now();
+    }
+
+    public PackEntry(Long documentId, String packName, Long offset, Long length, String sha256) {
+        this();
+        this.documentId = documentId;
+        this.packName = packName;
+        this.offset = offset;
+        this.length = length;
+        this.sha256 = sha256;
+    }
+
+    // Getters and Setters
+    public Long getDocumentId() { return documentId; }
+    public void setDocumentId(Long documentId) { this.documentId = documentId; }
+
+    public String getPackName() { return packName; }
+    public void setPackName(String packName) { this.packName = packName; }
+
+    public Long getOffset() { return offset; }
+    public void setOffset(Long offset) { this.offset = offset; }
+
+    public Long getLength() { return length; }
+    public void setLength(Long length) { this.length = length; }
+
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+}
@@ -1,45 +1,140 @@
 package com.signature.repository;
 
+import com.signature.dto.DocumentStats;
+import com.signature.dto.DocumentSummary;
 import com.signature.entity.Document;
 import com.signature.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
+
+    String SUMMARY = "SELECT new com.signature.dto.DocumentSummary(d.id, d.originalName, d.fileSize, d.contentType, "
+        + "d.isSigned, d.uploadedAt, d.signedAt, d.signerName, d.certificateSubject, d.signatureAlgorithm) ";
+
+    // Substring match served by the pg_trgm GIN indexes, ranked by the closest field
+    String SEARCH_MATCH = "(LOWER(d.original_name) LIKE :pattern OR LOWER(d.signer_name) LIKE :pattern "
+        + "OR LOWER(d.certificate_subject) LIKE :pattern) ";
+    String SEARCH_ORDER = "ORDER BY GREATEST(public.word_similarity(:query, LOWER(d.original_name)), "
+        + "public.word_similarity(:query, LOWER(COALESCE(d.signer_name, ''))), "
+        + "public.word_similarity(:query, LOWER(COALESCE(d.certificate_subject, '')))) DESC, d.id DESC "
+        + "LIMIT :limit OFFSET :offset";
     
     // Méthodes existantes améliorées pour filtrer par utilisateur
-    List<Document> findByIsSignedTrueAndUser(User user);
-    
-    List<Document> findByIsSignedFalseAndUser(User user);
-    
-    @Query("SELECT d FROM Document d WHERE d.user = :user ORDER BY d.uploadedAt DESC")
-    List<Document> findAllByUserOrderByUploadedAtDesc(@Param("user") User user);
-    
-    @Query("SELECT d FROM Document d WHERE d.isSigned = true AND d.user = :user ORDER BY d.signedAt DESC")
-    List<Document> findSignedDocumentsByUserOrderBySignedAtDesc(@Param("user") User user);
-    
+    Optional<Document> findByIdAndUser(Long id, User user);
+
+    List<Document> findByIdInAndUser(Collection<Long> ids, User user);
+
     List<Document> findByUploadedAtBetweenAndUser(LocalDateTime start, LocalDateTime end, User user);
     
-    List<Document> findBySignerNameContainingIgnoreCaseAndUser(String signerName, User user);
-    
     // Méthodes originales conservées pour la compatibilité et l'administration
-    List<Document> findByIsSignedTrue();
-    
-    List<Document> findByIsSignedFalse();
-    
-    @Query("SELECT d FROM Document d ORDER BY d.uploadedAt DESC")
-    List<Document> findAllOrderByUploadedAtDesc();
-    
-    @Query("SELECT d FROM Document d WHERE d.isSigned = true ORDER BY d.signedAt DESC")
-    List<Document> findSignedDocumentsOrderBySignedAtDesc();
-    
     List<Document> findByUploadedAtBetween(LocalDateTime start, LocalDateTime end);
-    
-    List<Document> findBySignerNameContainingIgnoreCase(String signerName);
+
+    // Pages par curseur (keyset) : les lignes strictement après (date, id), du plus récent au plus ancien,
+    // lues en projection pour ne pas charger d'entités.
+    // The redundant "<= :at" bound lets the index scan start at the cursor.
+    @Query(SUMMARY + "FROM Document d WHERE d.user = :user "
+        + "AND d.uploadedAt <= :at AND (d.uploadedAt < :at OR d.id < :id) ORDER BY d.uploadedAt DESC, d.id DESC")
+    List<DocumentSummary> findPageByUser(@Param("user") User user, @Param("at") LocalDateTime at, @Param("id") Long id,
+                                         Pageable pageable);
+
+    @Query(SUMMARY + "FROM Document d "
+        + "WHERE d.uploadedAt <= :at AND (d.uploadedAt < :at OR d.id < :id) ORDER BY d.uploadedAt DESC, d.id DESC")
+    List<DocumentSummary> findPage(@Param("at") LocalDateTime at, @Param("id") Long id, Pageable pageable);
+
+    @Query(SUMMARY + "FROM Document d WHERE d.user = :user AND d.isSigned = true "
+        + "AND d.signedAt <= :at AND (d.signedAt < :at OR d.id < :id) ORDER BY d.signedAt DESC, d.id DESC")
+    List<DocumentSummary> findSignedPageByUser(@Param("user") User user, @Param("at") LocalDateTime at, @Param("id") Long id,
+                                               Pageable pageable);
+
+    @Query(SUMMARY + "FROM Document d WHERE d.isSigned = true "
+        + "AND d.signedAt <= :at AND (d.signedAt < :at OR d.id < :id) ORDER BY d.signedAt DESC, d.id DESC")
+    List<DocumentSummary> findSignedPage(@Param("at") LocalDateTime at, @Param("id") Long id, Pageable pageable);
+
+    @Query(SUMMARY + "FROM Document d WHERE d.user = :user AND d.isSigned = false "
+        + "AND d.uploadedAt <= :at AND (d.uploadedAt < :at OR d.id < :id) ORDER BY d.uploadedAt DESC, d.id DESC")
+    List<DocumentSummary> findUnsignedPageByUser(@Param("user") User user, @Param("at") LocalDateTime at, @Param("id") Long id,
+                                                 Pageable pageable);
+
+    @Query(SUMMARY + "FROM Document d WHERE d.isSigned = false "
+        + "AND d.uploadedAt <= :at AND (d.uploadedAt < :at OR d.id < :id) ORDER BY d.uploadedAt DESC, d.id DESC")
+    List<DocumentSummary> findUnsignedPage(@Param("at") LocalDateTime at, @Param("id") Long id, Pageable pageable);
+
+    // Recherche : identifiants par pertinence décroissante, puis lecture des lignes par findSummariesByIdIn
+    @Query(value = "SELECT d.id FROM documents d WHERE d.user_id = :userId AND " + SEARCH_MATCH + SEARCH_ORDER,
+        nativeQuery = true)
+    List<Long> searchIdsByUser(@Param("userId") Long userId, @Param("query") String query,
+                               @Param("pattern") String pattern, @Param("limit") int limit, @Param("offset") int offset);
+
+    @Query(value = "SELECT d.id FROM documents d WHERE " + SEARCH_MATCH + SEARCH_ORDER, nativeQuery = true)
+    List<Long> searchIds(@Param("query") String query, @Param("pattern") String pattern,
+                         @Param("limit") int limit, @Param("offset") int offset);
+
+    @Query(SUMMARY + "FROM Document d WHERE d.id IN :ids")
+    List<DocumentSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Tous les compteurs en une seule agrégation
+    @Query("SELECT new com.signature.dto.DocumentStats(COUNT(d), SUM(CASE WHEN d.isSigned = true THEN 1L ELSE 0L END)) "
+        + "FROM Document d WHERE d.user = :user")
+    DocumentStats countByUser(@Param("user") User user);
+
+    @Query("SELECT new com.signature.dto.DocumentStats(COUNT(d), SUM(CASE WHEN d.isSigned = true THEN 1L ELSE 0L END)) "
+        + "FROM Document d")
+    DocumentStats countAll();
+
+    // Clés de stockage encore référencées parmi celles fournies
+    @Query("SELECT d.filePath FROM Document d WHERE d.filePath IN :keys")
+    List<String> findFilePathsIn(@Param("keys") Collection<String> keys);
+
+    @Query("SELECT d.signedFilePath FROM Document d WHERE d.signedFilePath IN :keys")
+    List<String> findSignedFilePathsIn(@Param("keys") Collection<String> keys);
+
+    // Page d'export : critères facultatifs (null = pas de filtre), par identifiants croissants
+    @Query("SELECT d FROM Document d WHERE d.id > :afterId "
+        + "AND (:userId IS NULL OR d.user.id = :userId) "
+        + "AND (:signed IS NULL OR d.isSigned = :signed) "
+        + "AND (:uploadedFrom IS NULL OR d.uploadedAt >= :uploadedFrom) "
+        + "AND (:uploadedTo IS NULL OR d.uploadedAt <= :uploadedTo) "
+        + "AND (:signerPattern IS NULL OR LOWER(d.signerName) LIKE :signerPattern) "
+        + "ORDER BY d.id")
+    List<Document> findForExport(@Param("userId") Long userId, @Param("signed") Boolean signed,
+                                 @Param("uploadedFrom") LocalDateTime uploadedFrom,
+                                 @Param("uploadedTo") LocalDateTime uploadedTo,
+                                 @Param("signerPattern") String signerPattern,
+                                 @Param("afterId") Long afterId, Pageable pageable);
+
+    // Documents signés avant la date et pas encore archivés, par identifiants croissants
+    @Query("SELECT d FROM Document d WHERE d.isSigned = true AND d.signedAt < :signedBefore AND d.id > :afterId "
+        + "AND d.signedFilePath NOT LIKE 'pack:%' ORDER BY d.id")
+    List<Document> findArchivable(@Param("signedBefore") LocalDateTime signedBefore, @Param("afterId") Long afterId,
+                                  Pageable pageable);
+
+    // Remplace l'emplacement du fichier signé seulement s'il n'a pas changé entre-temps
+    @Modifying
+    @Query("UPDATE Document d SET d.signedFilePath = :location WHERE d.id = :id AND d.signedFilePath = :previous")
+    int updateSignedFilePath(@Param("id") Long id, @Param("previous") String previous, @Param("location") String location);
+
+    // Enregistre la signature seulement si le document existe encore et n'a pas été signé entre-temps
+    @Modifying
+    @Query("UPDATE Document d SET d.isSigned = true, d.signedFilePath = :signedFilePath, "
+        + "d.signedContentHash = :signedContentHash, d.signedAt = :signedAt, d.signerName = :signerName, "
+        + "d.certificateSubject = :certificateSubject, d.signatureAlgorithm = :signatureAlgorithm "
+        + "WHERE d.id = :id AND d.isSigned = false")
+    int markSigned(@Param("id") Long id, @Param("signedFilePath") String signedFilePath,
+                   @Param("signedContentHash") String signedContentHash, @Param("signedAt") LocalDateTime signedAt,
+                   @Param("signerName") String signerName, @Param("certificateSubject") String certificateSubject,
+                   @Param("signatureAlgorithm") String signatureAlgorithm);
+
+    // Parcours par pages d'identifiants croissants, pour les traitements de maintenance
+    List<Document> findTop500ByIdGreaterThanOrderByIdAsc(Long id);
 }
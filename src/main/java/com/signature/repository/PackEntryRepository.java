@@ -0,0 +1,9 @@
+package com.signature.repository;
+
+import com.signature.entity.PackEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PackEntryRepository extends JpaRepository<PackEntry, Long> {
+}
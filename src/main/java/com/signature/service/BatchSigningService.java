@@ -0,0 +1,149 @@
+package com.signature.service;
+
+import com.signature.dto.BatchSignResult;
+import com.signature.entity.Document;
+import com.signature.entity.User;
+import com.signature.repository.DocumentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Signature de nombreux documents en une requête : les signatures sont réparties sur un pool
+ * de threads borné et les entités mises à jour sont enregistrées par transactions groupées.
+ */
+@Service
+public class BatchSigningService {
+
+    @Autowired
+    private SignatureService signatureService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private ThreadPoolTaskExecutor batchSigningExecutor;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private DocumentStatsService documentStatsService;
+
+    @Value("${signature.batch.max-documents:1000}")
+    private int maxDocuments;
+
+    @Value("${signature.batch.save-batch-size:50}")
+    private int saveBatchSize;
+
+    /**
+     * Récupère l'utilisateur actuellement connecté
+     */
+    private User getCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getName())) {
+            return (User) auth.getPrincipal();
+        }
+        return null;
+    }
+
+    /**
+     * Signe les documents demandés et retourne un résultat par document, dans l'ordre de la requête
+     */
+    public List<BatchSignResult> signDocuments(List<Long> documentIds, String signerName) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(documentIds));
+        if (ids.size() > maxDocuments) {
+            throw new IllegalArgumentException("A batch cannot contain more than " + maxDocuments + " documents");
+        }
+
+        // One owner-scoped query for the whole batch instead of one lookup per document
+        User currentUser = getCurrentUser();
+        List<Document> accessible = currentUser != null
+            ? documentRepository.findByIdInAndUser(ids, currentUser)
+            : documentRepository.findAllById(ids);
+        Map<Long, Document> documents = accessible.stream()
+            .collect(Collectors.toMap(Document::getId, Function.identity()));
+
+        Map<Long, Future<Document>> pending = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Document document = documents.get(id);
+            if (document != null) {
+                pending.put(id, batchSigningExecutor.submit(() -> signatureService.applySignature(document, signerName)));
+            }
+        }
+
+        Map<Long, BatchSignResult> results = new LinkedHashMap<>();
+        List<Document> signed = new ArrayList<>();
+        for (Map.Entry<Long, Future<Document>> entry : pending.entrySet()) {
+            try {
+                signed.add(entry.getValue().get());
+            } catch (ExecutionException e) {
+                results.put(entry.getKey(), BatchSignResult.failed(entry.getKey(), e.getCause().getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.put(entry.getKey(), BatchSignResult.failed(entry.getKey(), "Interrupted"));
+            }
+        }
+
+        saveInBatches(signed, results);
+
+        List<BatchSignResult> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ordered.add(results.getOrDefault(id, BatchSignResult.notFound(id)));
+        }
+        return ordered;
+    }
+
+    private void saveInBatches(List<Document> signed, Map<Long, BatchSignResult> results) {
+        for (int from = 0; from < signed.size(); from += saveBatchSize) {
+            List<Document> chunk = signed.subList(from, Math.min(from + saveBatchSize, signed.size()));
+            List<Document> recorded = new ArrayList<>();
+            try {
+                // Each row is claimed, not overwritten: the batch snapshot may be stale by now
+                transactionTemplate.executeWithoutResult(status -> {
+                    recorded.clear();
+                    for (Document document : chunk) {
+                        if (signatureService.recordSignature(document)) {
+                            recorded.add(document);
+                        }
+                    }
+                });
+            } catch (Exception e) {
+                System.err.println("Error saving signed documents batch: " + e.getMessage());
+                for (Document document : chunk) {
+                    signatureService.discardSignature(document);
+                    results.put(document.getId(), BatchSignResult.failed(document.getId(), "Error saving document: " + e.getMessage()));
+                }
+                continue;
+            }
+
+            for (Document document : chunk) {
+                if (recorded.contains(document)) {
+                    results.put(document.getId(), BatchSignResult.signed(document.getId(), document.getSignedAt()));
+                    documentStatsService.documentSigned(document);
+                    thumbnailService.prerender(document);
+                } else {
+                    signatureService.discardSignature(document);
+                    results.put(document.getId(), BatchSignResult.failed(document.getId(), "Document was signed or deleted meanwhile"));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.signature.service;
+
+import com.signature.entity.StoredBlob;
+import com.signature.repository.StoredBlobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Stockage adressé par contenu : chaque fichier est écrit une seule fois sous son SHA-256
+ * et partagé par tous les documents identiques, avec un compteur de références.
+ * Le fichier est supprimé après validation de la transaction qui retire sa dernière référence.
+ */
+@Service
+public class BlobStorageService {
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    @Autowired
+    private StoredBlobRepository storedBlobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Copie le flux dans un fichier temporaire en calculant son SHA-256 au passage,
+     * puis ajoute une référence au fichier partagé correspondant
+     */
+    public StoredBlob store(InputStream content) throws Exception {
+        Path temp = documentStore.createTempFile();
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream in = new DigestInputStream(content, messageDigest)) {
+                size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String sha256 = HexFormat.of().formatHex(messageDigest.digest());
+            return storeFile(temp, sha256, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Ajoute une référence à partir d'un fichier temporaire du {@link DocumentStore}
+     * dont l'empreinte a déjà été calculée ; le fichier est consommé s'il est publié
+     */
+    public StoredBlob storeFile(Path temp, String sha256, long size) throws IOException {
+        try {
+            try {
+                return transactionTemplate.execute(status -> addReference(sha256, size, temp));
+            } catch (DataIntegrityViolationException e) {
+                // Same content inserted concurrently by another upload: the row now exists
+                return transactionTemplate.execute(status -> addReference(sha256, size, temp));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Retire une référence ; le fichier et sa ligne disparaissent avec la dernière,
+     * une fois la transaction de l'appelant validée
+     */
+    public void release(String sha256) {
+        transactionTemplate.executeWithoutResult(status -> storedBlobRepository.findForUpdate(sha256).ifPresent(blob -> {
+            blob.setRefCount(blob.getRefCount() - 1);
+            storedBlobRepository.save(blob);
+            if (blob.getRefCount() > 0) {
+                return;
+            }
+            // The row stays at zero until commit: a rollback restores the reference with its file intact
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    purge(sha256);
+                }
+            });
+        }));
+    }
+
+    /**
+     * Supprime le fichier et la ligne d'un contenu sans référence, sous le verrou de la ligne
+     * pour qu'un ajout concurrent du même contenu ne puisse pas s'intercaler
+     */
+    private void purge(String sha256) {
+        // The caller's transaction is already committed: the purge runs in its own
+        TransactionTemplate purgeTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        purgeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            purgeTemplate.executeWithoutResult(status -> storedBlobRepository.findForUpdate(sha256).ifPresent(blob -> {
+                if (blob.getRefCount() > 0) {
+                    // Referenced again by an upload since the release
+                    return;
+                }
+                try {
+                    documentStore.delete(blobKey(sha256));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                storedBlobRepository.delete(blob);
+            }));
+        } catch (RuntimeException e) {
+            // The row stays at zero references and its file is left to the storage reclaimer
+            System.err.println("Error deleting blob " + sha256 + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Clé du fichier partagé dans le {@link DocumentStore}
+     */
+    public String blobKey(String sha256) {
+        return sha256 + ".pdf";
+    }
+
+    private StoredBlob addReference(String sha256, long size, Path temp) {
+        StoredBlob blob = storedBlobRepository.findForUpdate(sha256).orElseGet(() -> new StoredBlob(sha256, size));
+        String key = blobKey(sha256);
+        try {
+            // A new row always publishes its own copy: an existing file without a row is an orphan
+            // that the storage reclaimer may be removing at this very moment
+            if (blob.getRefCount() == 0 || !documentStore.exists(key)) {
+                documentStore.put(key, temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        blob.setRefCount(blob.getRefCount() + 1);
+        return storedBlobRepository.save(blob);
+    }
+}
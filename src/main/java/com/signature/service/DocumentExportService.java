@@ -0,0 +1,155 @@
+package com.signature.service;
+
+import com.signature.dto.ExportRequest;
+import com.signature.entity.Document;
+import com.signature.entity.User;
+import com.signature.repository.DocumentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Export ZIP de documents écrit en flux : les documents sont lus par pages d'identifiants
+ * et les fichiers un par un, si bien que la mémoire utilisée ne dépend pas du nombre de documents.
+ * Les PDF sont déjà compressés : ils sont stockés tels quels (méthode STORED), ce qui impose
+ * de connaître leur CRC avant l'écriture et donc une première lecture du fichier.
+ */
+@Service
+public class DocumentExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private PackArchiveService packArchiveService;
+
+    @Value("${signature.export.page-size:500}")
+    private int pageSize;
+
+    /**
+     * Récupère l'utilisateur actuellement connecté
+     */
+    private User getCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getName())) {
+            return (User) auth.getPrincipal();
+        }
+        return null;
+    }
+
+    /**
+     * Écrit le ZIP des documents de l'utilisateur connecté correspondant au filtre.
+     * Le fichier signé est exporté pour les documents signés, l'original pour les autres.
+     * @return le nombre de documents exportés
+     */
+    public int writeZip(ExportRequest filter, OutputStream out) throws IOException {
+        User currentUser = getCurrentUser();
+        Long userId = currentUser != null ? currentUser.getId() : null;
+        String signerPattern = filter.getSignerName() != null && !filter.getSignerName().isBlank()
+            ? "%" + filter.getSignerName().trim().toLowerCase(Locale.ROOT) + "%"
+            : null;
+
+        int exported = 0;
+        List<Long> missing = new ArrayList<>();
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.setMethod(ZipOutputStream.STORED);
+        Long lastId = 0L;
+        List<Document> page;
+        while (!(page = documentRepository.findForExport(userId, filter.getSigned(), filter.getUploadedFrom(),
+                filter.getUploadedTo(), signerPattern, lastId, PageRequest.of(0, pageSize))).isEmpty()) {
+            for (Document document : page) {
+                lastId = document.getId();
+                if (writeEntry(zip, document)) {
+                    exported++;
+                } else {
+                    missing.add(document.getId());
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            byte[] report = ("Files not found for documents: " + missing + "\n").getBytes(StandardCharsets.UTF_8);
+            ZipEntry entry = new ZipEntry("export-errors.txt");
+            entry.setMethod(ZipEntry.DEFLATED);
+            zip.putNextEntry(entry);
+            zip.write(report);
+            zip.closeEntry();
+        }
+        // Writes the central directory; the response stream itself is closed by the container
+        zip.finish();
+        zip.flush();
+        return exported;
+    }
+
+    private boolean writeEntry(ZipOutputStream zip, Document document) throws IOException {
+        boolean signed = document.getIsSigned() && document.getSignedFilePath() != null;
+        Resource content;
+        try {
+            content = packArchiveService.resolve(signed ? document.getSignedFilePath() : document.getFilePath());
+        } catch (RuntimeException e) {
+            return false;
+        }
+        if (!content.exists()) {
+            return false;
+        }
+
+        CRC32 crc = new CRC32();
+        long size = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = content.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                size += read;
+            }
+        }
+
+        ZipEntry entry = new ZipEntry(entryName(document, signed));
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(size);
+        entry.setCompressedSize(size);
+        entry.setCrc(crc.getValue());
+        LocalDateTime timestamp = signed && document.getSignedAt() != null ? document.getSignedAt() : document.getUploadedAt();
+        if (timestamp != null) {
+            entry.setTime(timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        zip.putNextEntry(entry);
+        try (InputStream in = content.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                zip.write(buffer, 0, read);
+            }
+        }
+        zip.closeEntry();
+        return true;
+    }
+
+    /**
+     * Nom unique dans l'archive : identifiant du document puis nom d'origine, sans séparateur de chemin
+     */
+    private static String entryName(Document document, boolean signed) {
+        String name = document.getOriginalName().replaceAll("[/\\\\:]", "_");
+        if (signed) {
+            name = name.replace(".pdf", "_signed.pdf");
+        }
+        return document.getId() + "_" + name;
+    }
+}
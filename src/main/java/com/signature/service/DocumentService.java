@@ -1,22 +1,60 @@
 package com.signature.service;
 
+import com.signature.dto.DocumentPage;
+import com.signature.dto.DocumentStats;
+import com.signature.dto.DocumentSummary;
 import com.signature.entity.Document;
 import com.signature.entity.User;
 import com.signature.repository.DocumentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 public class DocumentService {
 
+    // Shorter queries have no trigram to look up in the search indexes
+    private static final int MIN_SEARCH_LENGTH = 3;
+
     @Autowired
     private DocumentRepository documentRepository;
+
+    @Autowired
+    private BlobStorageService blobStorageService;
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    @Autowired
+    private PackArchiveService packArchiveService;
+
+    @Autowired
+    private DocumentStatsService documentStatsService;
+
+    @Value("${signature.listing.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${signature.listing.max-page-size:200}")
+    private int maxPageSize;
     
     /**
      * Récupère l'utilisateur actuellement connecté
@@ -30,58 +68,93 @@ public class DocumentService {
     }
 
     /**
-     * Récupère tous les documents de l'utilisateur connecté
+     * Récupère une page des documents de l'utilisateur connecté, du plus récent au plus ancien
+     * @param cursor jeton de la page précédente, null pour la première page
+     * @param size nombre de documents, borné par signature.listing.max-page-size
      */
-    public List<Document> getAllDocuments() {
+    @Transactional(readOnly = true)
+    public DocumentPage getAllDocuments(String cursor, Integer size) {
+        DocumentCursor position = DocumentCursor.decode(cursor);
+        int pageSize = pageSize(size);
         User currentUser = getCurrentUser();
+        List<DocumentSummary> rows;
         if (currentUser != null) {
-            return documentRepository.findAllByUserOrderByUploadedAtDesc(currentUser);
+            rows = documentRepository.findPageByUser(currentUser, position.getTimestamp(), position.getId(), limit(pageSize));
+        } else {
+            // Fallback pour les requêtes administratives ou de test
+            rows = documentRepository.findPage(position.getTimestamp(), position.getId(), limit(pageSize));
         }
-        // Fallback pour les requêtes administratives ou de test
-        return documentRepository.findAllOrderByUploadedAtDesc();
+        return toPage(rows, pageSize, DocumentSummary::getUploadedAt);
     }
 
     /**
-     * Récupère les documents signés de l'utilisateur connecté
+     * Récupère une page des documents signés de l'utilisateur connecté, par date de signature décroissante
      */
-    public List<Document> getSignedDocuments() {
+    @Transactional(readOnly = true)
+    public DocumentPage getSignedDocuments(String cursor, Integer size) {
+        DocumentCursor position = DocumentCursor.decode(cursor);
+        int pageSize = pageSize(size);
         User currentUser = getCurrentUser();
+        List<DocumentSummary> rows;
         if (currentUser != null) {
-            return documentRepository.findSignedDocumentsByUserOrderBySignedAtDesc(currentUser);
+            rows = documentRepository.findSignedPageByUser(currentUser, position.getTimestamp(), position.getId(), limit(pageSize));
+        } else {
+            // Fallback pour les requêtes administratives ou de test
+            rows = documentRepository.findSignedPage(position.getTimestamp(), position.getId(), limit(pageSize));
         }
-        // Fallback pour les requêtes administratives ou de test
-        return documentRepository.findSignedDocumentsOrderBySignedAtDesc();
+        return toPage(rows, pageSize, DocumentSummary::getSignedAt);
     }
 
     /**
-     * Récupère les documents non signés de l'utilisateur connecté
+     * Récupère une page des documents non signés de l'utilisateur connecté, du plus récent au plus ancien
      */
-    public List<Document> getUnsignedDocuments() {
+    @Transactional(readOnly = true)
+    public DocumentPage getUnsignedDocuments(String cursor, Integer size) {
+        DocumentCursor position = DocumentCursor.decode(cursor);
+        int pageSize = pageSize(size);
         User currentUser = getCurrentUser();
+        List<DocumentSummary> rows;
         if (currentUser != null) {
-            return documentRepository.findByIsSignedFalseAndUser(currentUser);
+            rows = documentRepository.findUnsignedPageByUser(currentUser, position.getTimestamp(), position.getId(), limit(pageSize));
+        } else {
+            // Fallback pour les requêtes administratives ou de test
+            rows = documentRepository.findUnsignedPage(position.getTimestamp(), position.getId(), limit(pageSize));
         }
-        // Fallback pour les requêtes administratives ou de test
-        return documentRepository.findByIsSignedFalse();
+        return toPage(rows, pageSize, DocumentSummary::getUploadedAt);
+    }
+
+    private int pageSize(Integer requested) {
+        if (requested == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        return Math.max(1, Math.min(requested, maxPageSize));
+    }
+
+    // One extra row tells whether a next page exists without a count query
+    private static Pageable limit(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    private static DocumentPage toPage(List<DocumentSummary> rows, int pageSize,
+                                       Function<DocumentSummary, LocalDateTime> sortKey) {
+        if (rows.size() <= pageSize) {
+            return new DocumentPage(rows, null, pageSize);
+        }
+        List<DocumentSummary> items = rows.subList(0, pageSize);
+        DocumentSummary last = items.get(pageSize - 1);
+        return new DocumentPage(items, new DocumentCursor(sortKey.apply(last), last.getId()).encode(), pageSize);
     }
 
     /**
-     * Récupère un document par son ID, vérifie qu'il appartient à l'utilisateur connecté
+     * Récupère un document par son ID s'il appartient à l'utilisateur connecté, en une seule requête
      */
     public Optional<Document> getDocumentById(Long id) {
-        Optional<Document> documentOpt = documentRepository.findById(id);
         User currentUser = getCurrentUser();
-        
-        if (documentOpt.isPresent() && currentUser != null) {
-            Document document = documentOpt.get();
-            // Vérifier que le document appartient à l'utilisateur connecté
-            if (document.getUser() != null && !document.getUser().getId().equals(currentUser.getId())) {
-                // Document appartient à un autre utilisateur, accès refusé
-                return Optional.empty();
-            }
+        if (currentUser != null) {
+            return documentRepository.findByIdAndUser(id, currentUser);
         }
-        
-        return documentOpt;
+        // Fallback pour les requêtes administratives ou de test
+        return documentRepository.findById(id);
     }
 
     /**
@@ -97,63 +170,126 @@ public class DocumentService {
     }
 
     /**
-     * Recherche par nom de signataire pour l'utilisateur connecté
+     * Recherche une sous-chaîne dans le nom du fichier, le signataire et le sujet du certificat
+     * des documents de l'utilisateur connecté ; les résultats les plus proches viennent en premier
+     * @param cursor jeton de la page précédente, null pour la première page
      */
-    public List<Document> searchBySignerName(String signerName) {
+    @Transactional(readOnly = true)
+    public DocumentPage search(String query, String cursor, Integer size) {
+        String normalized = query == null ? "" : query.strip().toLowerCase(Locale.ROOT);
+        if (normalized.length() < MIN_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("Search query must contain at least " + MIN_SEARCH_LENGTH + " characters");
+        }
+        int offset = decodeOffset(cursor);
+        int pageSize = pageSize(size);
+        String pattern = "%" + normalized.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
         User currentUser = getCurrentUser();
+        List<Long> ids;
         if (currentUser != null) {
-            return documentRepository.findBySignerNameContainingIgnoreCaseAndUser(signerName, currentUser);
+            ids = documentRepository.searchIdsByUser(currentUser.getId(), normalized, pattern, pageSize + 1, offset);
+        } else {
+            // Fallback pour les requêtes administratives ou de test
+            ids = documentRepository.searchIds(normalized, pattern, pageSize + 1, offset);
+        }
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        if (pageIds.isEmpty()) {
+            return new DocumentPage(List.of(), null, pageSize);
+        }
+
+        // Rows come back in any order: put them back in rank order
+        Map<Long, DocumentSummary> byId = new HashMap<>();
+        for (DocumentSummary summary : documentRepository.findSummariesByIdIn(pageIds)) {
+            byId.put(summary.getId(), summary);
+        }
+        List<DocumentSummary> items = new ArrayList<>();
+        for (Long id : pageIds) {
+            DocumentSummary summary = byId.get(id);
+            if (summary != null) {
+                items.add(summary);
+            }
+        }
+        return new DocumentPage(items, hasNext ? encodeOffset(offset + pageSize) : null, pageSize);
+    }
+
+    // Results are ranked, not ordered by a key: search pages continue at an offset
+    private static String encodeOffset(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(Integer.toString(offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeOffset(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
         }
-        // Fallback pour les requêtes administratives ou de test
-        return documentRepository.findBySignerNameContainingIgnoreCase(signerName);
     }
 
     /**
-     * Supprime un document s'il appartient à l'utilisateur connecté
+     * Supprime un document s'il appartient à l'utilisateur connecté ; les fichiers et les compteurs
+     * ne sont mis à jour qu'une fois la suppression validée
      * @return true si le document a été supprimé, false sinon
      */
+    @Transactional
     public boolean deleteDocument(Long id) {
         Optional<Document> documentOpt = getDocumentById(id); // Utilise déjà la vérification d'appartenance
         if (documentOpt.isPresent()) {
+            Document document = documentOpt.get();
             documentRepository.deleteById(id);
+            // Shared content: the file is removed after commit with its last reference
+            if (document.getContentHash() != null) {
+                blobStorageService.release(document.getContentHash());
+            }
+            // The signed output belongs to this document alone
+            String signedFilePath = document.getSignedFilePath();
+            if (PackArchiveService.isPackLocation(signedFilePath)) {
+                packArchiveService.remove(id);
+            }
+            afterCommit(() -> {
+                documentStatsService.documentRemoved(document);
+                if (signedFilePath != null && !PackArchiveService.isPackLocation(signedFilePath)) {
+                    try {
+                        documentStore.delete(signedFilePath);
+                    } catch (IOException e) {
+                        // Left to the storage reclaimer
+                        System.err.println("Error deleting signed file of document " + id + ": " + e.getMessage());
+                    }
+                }
+            });
             return true;
         }
         return false;
     }
 
     /**
-     * Compte le nombre total de documents de l'utilisateur connecté
+     * Exécute l'action après validation de la transaction en cours, ou tout de suite hors transaction
      */
-    public long getTotalDocuments() {
-        User currentUser = getCurrentUser();
-        if (currentUser != null) {
-            return documentRepository.findAllByUserOrderByUploadedAtDesc(currentUser).size();
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
-        // Fallback pour les requêtes administratives ou de test
-        return documentRepository.count();
-    }
-
-    /**
-     * Compte le nombre de documents signés de l'utilisateur connecté
-     */
-    public long getSignedDocumentsCount() {
-        User currentUser = getCurrentUser();
-        if (currentUser != null) {
-            return documentRepository.findByIsSignedTrueAndUser(currentUser).size();
-        }
-        // Fallback pour les requêtes administratives ou de test
-        return documentRepository.findByIsSignedTrue().size();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     /**
-     * Compte le nombre de documents non signés de l'utilisateur connecté
+     * Compteurs de documents de l'utilisateur connecté, servis depuis le cache de {@link DocumentStatsService}
      */
-    public long getUnsignedDocumentsCount() {
-        User currentUser = getCurrentUser();
-        if (currentUser != null) {
-            return documentRepository.findByIsSignedFalseAndUser(currentUser).size();
-        }
-        // Fallback pour les requêtes administratives ou de test
-        return documentRepository.findByIsSignedFalse().size();
+    public DocumentStats getStatistics() {
+        // Fallback pour les requêtes administratives ou de test : utilisateur null = tous les documents
+        return documentStatsService.getStats(getCurrentUser());
     }
 }
@@ -0,0 +1,120 @@
+package com.signature.service;
+
+import com.signature.dto.DocumentStats;
+import com.signature.entity.Document;
+import com.signature.entity.User;
+import com.signature.repository.DocumentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compteurs de documents par utilisateur, chargés par une seule requête d'agrégation
+ * puis tenus à jour en mémoire à chaque dépôt, signature et suppression.
+ * Les compteurs sont relus périodiquement pour corriger les écarts (autres instances, courses),
+ * et dès la lecture suivante si une mise à jour a eu lieu pendant leur chargement.
+ */
+@Service
+public class DocumentStatsService {
+
+    // Counters over every document, used when no user is authenticated (ids start at 1)
+    private static final long ALL_DOCUMENTS = 0L;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Value("${signature.stats.refresh-interval:10m}")
+    private Duration refreshInterval;
+
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+
+    // Updates per stripe of keys, to detect counters changed while a reload was querying
+    private final AtomicLongArray changes = new AtomicLongArray(64);
+
+    /**
+     * Compteurs de l'utilisateur, ou de tous les documents si l'utilisateur est null
+     */
+    public DocumentStats getStats(User user) {
+        long key = user != null ? user.getId() : ALL_DOCUMENTS;
+        long now = System.nanoTime();
+        Counters current = counters.get(key);
+        while (current == null || now - current.loadedAt >= refreshInterval.toNanos()) {
+            // Queried outside the map: a slow query must not block updates of other keys sharing the bin
+            long changesBefore = changes.get(stripe(key));
+            Counters loaded = load(user, now);
+            boolean installed = current == null
+                ? counters.putIfAbsent(key, loaded) == null
+                : counters.replace(key, current, loaded);
+            if (!installed) {
+                // Lost to a concurrent reload: use its counters, or load again if they are gone or stale
+                current = counters.get(key);
+                continue;
+            }
+            if (changes.get(stripe(key)) != changesBefore) {
+                // An update landed during the query, which may have missed it: the next read reloads
+                counters.remove(key, loaded);
+            }
+            current = loaded;
+            break;
+        }
+        return new DocumentStats(current.total.get(), current.signed.get());
+    }
+
+    public void documentAdded(Document document) {
+        update(document, 1, 0);
+    }
+
+    public void documentSigned(Document document) {
+        update(document, 0, 1);
+    }
+
+    public void documentRemoved(Document document) {
+        update(document, -1, document.getIsSigned() ? -1 : 0);
+    }
+
+    private void update(Document document, long totalDelta, long signedDelta) {
+        // Counters not loaded yet are read from the database on first use
+        apply(ALL_DOCUMENTS, totalDelta, signedDelta);
+        if (document.getUser() != null) {
+            apply(document.getUser().getId(), totalDelta, signedDelta);
+        }
+    }
+
+    private void apply(long key, long totalDelta, long signedDelta) {
+        changes.incrementAndGet(stripe(key));
+        // Atomic per key: a reload replaces the whole counters object, never a half-updated one
+        counters.computeIfPresent(key, (k, existing) -> {
+            existing.total.addAndGet(totalDelta);
+            existing.signed.addAndGet(signedDelta);
+            return existing;
+        });
+    }
+
+    private int stripe(long key) {
+        return (int) (key & (changes.length() - 1));
+    }
+
+    private Counters load(User user, long now) {
+        DocumentStats stats = user != null ? documentRepository.countByUser(user) : documentRepository.countAll();
+        return new Counters(stats.getTotalDocuments(), stats.getSignedDocuments(), now);
+    }
+
+    private static final class Counters {
+
+        private final AtomicLong total;
+        private final AtomicLong signed;
+        private final long loadedAt;
+
+        Counters(long total, long signed, long loadedAt) {
+            this.total = new AtomicLong(total);
+            this.signed = new AtomicLong(signed);
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.signature.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stockage des fichiers de documents, adressés par une clé sans séparateur de chemin.
+ * Les fichiers sont préparés dans un fichier temporaire puis publiés d'un bloc par {@link #put},
+ * si bien qu'un lecteur ne voit jamais un fichier à moitié écrit.
+ * Une implémentation vers un stockage objet pourra remplacer {@link FileSystemDocumentStore}.
+ */
+public interface DocumentStore {
+
+    /**
+     * Crée un fichier temporaire local à remplir avant de le publier avec {@link #put}
+     */
+    Path createTempFile() throws IOException;
+
+    /**
+     * Publie le fichier sous la clé de façon atomique ; le fichier source est consommé
+     * et sa date de modification devient celle de la publication
+     */
+    void put(String key, Path source) throws IOException;
+
+    boolean exists(String key);
+
+    /**
+     * Contenu à diffuser, lu à la demande
+     */
+    Resource getResource(String key);
+
+    /**
+     * Fichier local lisible pour les traitements qui ont besoin d'un accès aléatoire (PDFBox)
+     */
+    Path getLocalPath(String key) throws IOException;
+
+    /**
+     * @return true si un fichier a été supprimé
+     */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * Nombre de partitions parcourues une à une par {@link StorageReclaimer}
+     */
+    int getShardCount();
+
+    List<StoredFile> list(int shard) throws IOException;
+
+    /**
+     * Fichiers temporaires, dont ceux laissés par une écriture interrompue
+     */
+    List<StoredFile> listTemporary() throws IOException;
+
+    boolean deleteTemporary(String name) throws IOException;
+
+    /**
+     * Met le fichier de côté : il n'est plus lisible sous sa clé mais peut être restauré.
+     * @return le fichier tel qu'il était avant d'être déplacé, vide s'il n'existait plus
+     */
+    Optional<StoredFile> quarantine(String key) throws IOException;
+
+    /**
+     * Remet en place un fichier mis de côté, sauf si un fichier a été publié entre-temps sous la même clé
+     */
+    void restore(String key) throws IOException;
+
+    /**
+     * Fichiers mis de côté, datés de leur mise en quarantaine
+     */
+    List<StoredFile> listQuarantined() throws IOException;
+
+    boolean deleteQuarantined(String key) throws IOException;
+}
@@ -0,0 +1,210 @@
+package com.signature.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stockage sur disque local, réparti sur deux niveaux de 256 répertoires :
+ * la clé {@code k} est rangée sous {@code racine/ab/cd/k}, où {@code abcd} débute le SHA-256 de la clé.
+ * Les emplacements historiques (chemins complets enregistrés avant ce découpage) restent lisibles
+ * jusqu'à leur migration par {@link StorageMigrationService}.
+ */
+@Component
+@ConditionalOnProperty(name = "signature.storage.type", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemDocumentStore implements DocumentStore {
+
+    @Value("${signature.storage.path}")
+    private String storagePath;
+
+    private Path root;
+    private Path tempDir;
+    private Path quarantineDir;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(storagePath).toAbsolutePath().normalize();
+        tempDir = root.resolve("tmp");
+        quarantineDir = root.resolve("quarantine");
+        Files.createDirectories(tempDir);
+        Files.createDirectories(quarantineDir);
+    }
+
+    @Override
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile(tempDir, "store-", ".tmp");
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        Path target = pathFor(checkKey(key));
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Source on another file system: copy next to the root first, then rename
+            Path staged = createTempFile();
+            try {
+                Files.copy(source, staged, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(staged);
+            }
+            Files.delete(source);
+        }
+        // A move keeps the source timestamp: the file counts as new from its publication on,
+        // for the reclaimer's grace period
+        Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(pathFor(key));
+    }
+
+    @Override
+    public Resource getResource(String key) {
+        return new FileSystemResource(pathFor(key));
+    }
+
+    @Override
+    public Path getLocalPath(String key) {
+        return pathFor(key);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(pathFor(key));
+    }
+
+    @Override
+    public int getShardCount() {
+        return 256 * 256;
+    }
+
+    @Override
+    public List<StoredFile> list(int shard) throws IOException {
+        String prefix = String.format("%04x", shard);
+        return listFiles(root.resolve(prefix.substring(0, 2)).resolve(prefix.substring(2, 4)));
+    }
+
+    @Override
+    public List<StoredFile> listTemporary() throws IOException {
+        return listFiles(tempDir);
+    }
+
+    @Override
+    public boolean deleteTemporary(String name) throws IOException {
+        return Files.deleteIfExists(tempDir.resolve(checkKey(name)));
+    }
+
+    @Override
+    public Optional<StoredFile> quarantine(String key) throws IOException {
+        Path target = quarantineDir.resolve(checkKey(key));
+        try {
+            Files.move(pathFor(key), target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        StoredFile moved = toStoredFile(target);
+        // Quarantine retention counts from now on
+        Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+        return Optional.of(moved);
+    }
+
+    @Override
+    public void restore(String key) throws IOException {
+        Path source = quarantineDir.resolve(checkKey(key));
+        if (exists(key)) {
+            Files.deleteIfExists(source);
+        } else {
+            Files.move(source, pathFor(key), StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    @Override
+    public List<StoredFile> listQuarantined() throws IOException {
+        return listFiles(quarantineDir);
+    }
+
+    @Override
+    public boolean deleteQuarantined(String key) throws IOException {
+        return Files.deleteIfExists(quarantineDir.resolve(checkKey(key)));
+    }
+
+    /**
+     * Emplacement enregistré avant le découpage en répertoires : un chemin plutôt qu'une clé
+     */
+    public static boolean isLegacyLocation(String location) {
+        return location.indexOf('/') >= 0 || location.indexOf('\\') >= 0;
+    }
+
+    private Path pathFor(String key) {
+        if (isLegacyLocation(key)) {
+            return Paths.get(key);
+        }
+        String hash = HexFormat.of().formatHex(sha256(key));
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(key);
+    }
+
+    private static List<StoredFile> listFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<StoredFile> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                try {
+                    if (Files.isRegularFile(entry)) {
+                        files.add(toStoredFile(entry));
+                    }
+                } catch (NoSuchFileException e) {
+                    // Moved or deleted while listing
+                }
+            }
+        }
+        return files;
+    }
+
+    private static StoredFile toStoredFile(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return new StoredFile(file.getFileName().toString(), attributes.size(), attributes.lastModifiedTime().toInstant());
+    }
+
+    private static String checkKey(String key) {
+        if (key == null || key.isBlank() || isLegacyLocation(key) || key.equals(".") || key.equals("..")) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return key;
+    }
+
+    private static byte[] sha256(String key) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
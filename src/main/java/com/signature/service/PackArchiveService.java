@@ -0,0 +1,347 @@
+package com.signature.service;
+
+import com.signature.entity.Document;
+import com.signature.entity.PackEntry;
+import com.signature.repository.DocumentRepository;
+import com.signature.repository.PackEntryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Archivage des fichiers signés anciens dans de gros fichiers pack en ajout seul.
+ * Chaque fichier est précédé d'un court en-tête (identifiant du document, longueur) qui rend
+ * les packs lisibles sans la base ; l'index {@link PackEntry} donne la position de chaque document.
+ * Un document archivé a pour emplacement {@code pack:<id>} et est lu par lectures positionnelles
+ * sur un canal ouvert une fois par pack.
+ */
+@Service
+public class PackArchiveService {
+
+    public static final String LOCATION_PREFIX = "pack:";
+
+    private static final byte[] ENTRY_MAGIC = "SPK1".getBytes(StandardCharsets.US_ASCII);
+    private static final int ENTRY_HEADER_SIZE = ENTRY_MAGIC.length + Long.BYTES + Long.BYTES;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private PackEntryRepository packEntryRepository;
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${signature.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${signature.archive.min-age:90d}")
+    private Duration minAge;
+
+    @Value("${signature.archive.path:${signature.storage.path}/packs}")
+    private String archivePath;
+
+    @Value("${signature.archive.max-pack-size:4GB}")
+    private DataSize maxPackSize;
+
+    @Value("${signature.archive.batch-size:500}")
+    private int batchSize;
+
+    private Path packDir;
+
+    private final Map<String, FileChannel> readChannels = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        packDir = Paths.get(archivePath).toAbsolutePath().normalize();
+        Files.createDirectories(packDir);
+    }
+
+    @PreDestroy
+    public void close() {
+        for (FileChannel channel : readChannels.values()) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Shutting down
+            }
+        }
+        readChannels.clear();
+    }
+
+    public static boolean isPackLocation(String location) {
+        return location != null && location.startsWith(LOCATION_PREFIX);
+    }
+
+    @Scheduled(fixedDelayString = "${signature.archive.interval:PT1H}", initialDelayString = "${signature.archive.initial-delay:PT10M}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archive();
+        } catch (Exception e) {
+            System.err.println("Error archiving signed documents: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Archive les documents signés depuis plus de {@code min-age}
+     * @return le nombre de documents archivés
+     */
+    public synchronized int archive() throws IOException {
+        LocalDateTime signedBefore = LocalDateTime.now().minus(minAge);
+        int archived = 0;
+        Long lastId = 0L;
+        List<Document> page;
+        while (!(page = documentRepository.findArchivable(signedBefore, lastId, PageRequest.of(0, batchSize))).isEmpty()) {
+            lastId = page.get(page.size() - 1).getId();
+            archived += archiveBatch(page);
+        }
+        if (archived > 0) {
+            System.out.println("Archived " + archived + " signed documents into pack files");
+        }
+        return archived;
+    }
+
+    /**
+     * Contenu d'un emplacement de document : son pack s'il est archivé, sinon le {@link DocumentStore}
+     */
+    public Resource resolve(String location) {
+        return isPackLocation(location) ? getResource(location) : documentStore.getResource(location);
+    }
+
+    /**
+     * Contenu archivé du document, lu à la demande dans son pack
+     */
+    public Resource getResource(String location) {
+        Long documentId = Long.valueOf(location.substring(LOCATION_PREFIX.length()));
+        PackEntry entry = packEntryRepository.findById(documentId)
+            .orElseThrow(() -> new RuntimeException("File not found"));
+        return new PackEntryResource(entry, readChannel(entry.getPackName()));
+    }
+
+    /**
+     * Retire le document de l'index ; ses octets restent dans le pack
+     */
+    public void remove(Long documentId) {
+        packEntryRepository.deleteById(documentId);
+    }
+
+    private int archiveBatch(List<Document> documents) throws IOException {
+        String packName = currentPackName();
+        List<PackEntry> entries = new ArrayList<>();
+        List<Document> packed = new ArrayList<>();
+        try (FileChannel pack = FileChannel.open(packDir.resolve(packName),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            for (Document document : documents) {
+                Path source = documentStore.getLocalPath(document.getSignedFilePath());
+                if (!Files.exists(source)) {
+                    System.err.println("Signed file of document " + document.getId() + " not found, not archived");
+                    continue;
+                }
+                entries.add(append(pack, packName, document, source));
+                packed.add(document);
+            }
+            // Durable before the index points at it
+            pack.force(true);
+        }
+
+        List<String> looseKeys = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < entries.size(); i++) {
+                Document document = packed.get(i);
+                String location = LOCATION_PREFIX + document.getId();
+                // Skipped if the document was deleted or re-signed meanwhile: its bytes stay unused in the pack
+                if (documentRepository.updateSignedFilePath(document.getId(), document.getSignedFilePath(), location) == 1) {
+                    packEntryRepository.save(entries.get(i));
+                    looseKeys.add(document.getSignedFilePath());
+                }
+            }
+        });
+
+        for (String key : looseKeys) {
+            try {
+                documentStore.delete(key);
+            } catch (IOException e) {
+                // Left to the storage reclaimer: the key is no longer referenced
+                System.err.println("Error deleting archived file " + key + ": " + e.getMessage());
+            }
+        }
+        return looseKeys.size();
+    }
+
+    private PackEntry append(FileChannel pack, String packName, Document document, Path source) throws IOException {
+        long length = Files.size(source);
+        long headerOffset = pack.size();
+        ByteBuffer header = ByteBuffer.allocate(ENTRY_HEADER_SIZE)
+            .put(ENTRY_MAGIC)
+            .putLong(document.getId())
+            .putLong(length)
+            .flip();
+        while (header.hasRemaining()) {
+            pack.write(header, headerOffset + header.position());
+        }
+
+        long dataOffset = headerOffset + ENTRY_HEADER_SIZE;
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            long copied = 0;
+            while (copied < length) {
+                long transferred = pack.transferFrom(in, dataOffset + copied, length - copied);
+                if (transferred <= 0) {
+                    throw new EOFException("Signed file of document " + document.getId() + " shrank while archiving");
+                }
+                copied += transferred;
+            }
+        }
+        return new PackEntry(document.getId(), packName, dataOffset, length, document.getSignedContentHash());
+    }
+
+    /**
+     * Dernier pack tant qu'il n'a pas atteint {@code max-pack-size}, sinon le suivant
+     */
+    private String currentPackName() throws IOException {
+        int last = 0;
+        try (DirectoryStream<Path> packs = Files.newDirectoryStream(packDir, "pack-*.pack")) {
+            for (Path pack : packs) {
+                String name = pack.getFileName().toString();
+                last = Math.max(last, Integer.parseInt(name.substring(5, name.length() - 5)));
+            }
+        }
+        if (last == 0 || Files.size(packDir.resolve(packName(last))) >= maxPackSize.toBytes()) {
+            last++;
+        }
+        return packName(last);
+    }
+
+    private static String packName(int number) {
+        return String.format("pack-%06d.pack", number);
+    }
+
+    private FileChannel readChannel(String packName) {
+        return readChannels.computeIfAbsent(packName, name -> {
+            try {
+                return FileChannel.open(packDir.resolve(name), StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Région d'un pack exposée comme une ressource ; le saut d'octets (requêtes Range) ne lit rien
+     */
+    private static final class PackEntryResource extends AbstractResource {
+
+        private final PackEntry entry;
+        private final FileChannel channel;
+
+        PackEntryResource(PackEntry entry, FileChannel channel) {
+            this.entry = entry;
+            this.channel = channel;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return entry.getLength();
+        }
+
+        @Override
+        public String getFilename() {
+            return "signed-" + entry.getDocumentId() + ".pdf";
+        }
+
+        @Override
+        public String getDescription() {
+            return "pack entry [" + entry.getPackName() + "@" + entry.getOffset() + "]";
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new RegionInputStream(channel, entry.getOffset(), entry.getLength());
+        }
+    }
+
+    /**
+     * Lecture positionnelle d'une région : sans état partagé, plusieurs lecteurs utilisent le même canal
+     */
+    private static final class RegionInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        RegionInputStream(FileChannel channel, long offset, long length) {
+            this.channel = channel;
+            this.position = offset;
+            this.end = offset + length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int count = (int) Math.min(len, end - position);
+            int read = channel.read(ByteBuffer.wrap(buffer, off, count), position);
+            if (read == -1) {
+                throw new EOFException("Pack file is shorter than its index");
+            }
+            position += read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, end - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, end - position);
+        }
+    }
+}
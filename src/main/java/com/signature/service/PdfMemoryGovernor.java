@@ -0,0 +1,96 @@
+package com.signature.service;
+
+import jakarta.annotation.PostConstruct;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Borne la mémoire consommée par les PDF en cours de traitement.
+ * Chaque document utilise au plus {@code max-main-memory} de tampons en mémoire avant de
+ * déborder dans des fichiers temporaires, et la somme des documents ouverts simultanément
+ * ne dépasse pas {@code max-in-flight-memory} : au-delà, les traitements attendent leur tour.
+ */
+@Component
+public class PdfMemoryGovernor {
+
+    @Value("${signature.pdf.max-main-memory:16MB}")
+    private DataSize maxMainMemory;
+
+    @Value("${signature.pdf.max-in-flight-memory:256MB}")
+    private DataSize maxInFlightMemory;
+
+    @Value("${signature.pdf.scratch-path:}")
+    private String scratchPath;
+
+    @Value("${signature.pdf.acquire-timeout:60s}")
+    private Duration acquireTimeout;
+
+    private Semaphore budget;
+    private int totalPermits;
+
+    @PostConstruct
+    public void init() {
+        totalPermits = toPermits(maxInFlightMemory.toBytes());
+        budget = new Semaphore(totalPermits, true);
+    }
+
+    /**
+     * Fabrique de caches PDFBox : mémoire jusqu'au seuil par document, puis fichiers temporaires
+     */
+    public StreamCacheCreateFunction streamCache() {
+        MemoryUsageSetting setting = MemoryUsageSetting.setupMixed(maxMainMemory.toBytes());
+        if (!scratchPath.isBlank()) {
+            setting.setTempDir(new File(scratchPath));
+        }
+        return setting.streamCache;
+    }
+
+    /**
+     * Réserve la part du budget global correspondant à un document de la taille donnée,
+     * plafonnée à {@code max-main-memory} puisque le reste déborde dans des fichiers temporaires.
+     * La réservation est libérée à la fermeture, une fois le document refermé.
+     */
+    public Reservation reserve(long documentSize) throws InterruptedException {
+        long heapBytes = Math.min(Math.max(documentSize, 1), maxMainMemory.toBytes());
+        int permits = Math.min(toPermits(heapBytes), totalPermits);
+        if (!budget.tryAcquire(permits, acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new RuntimeException("PDF processing capacity exhausted, please retry later");
+        }
+        return new Reservation(permits);
+    }
+
+    public long getAvailableBytes() {
+        return (long) budget.availablePermits() * 1024;
+    }
+
+    // One permit per KiB keeps the permit count within int range for large budgets
+    private static int toPermits(long bytes) {
+        return (int) Math.min(Integer.MAX_VALUE, (bytes + 1023) / 1024);
+    }
+
+    public final class Reservation implements AutoCloseable {
+
+        private final int permits;
+        private boolean released;
+
+        private Reservation(int permits) {
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                budget.release(permits);
+            }
+        }
+    }
+}
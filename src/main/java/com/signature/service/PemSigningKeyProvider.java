@@ -0,0 +1,124 @@
+package com.signature.service;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.edec.EdECObjectIdentifiers;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.asn1.pkcs.PrivateKeyInfo;
+import org.bouncycastle.asn1.x9.X9ObjectIdentifiers;
+import org.bouncycastle.openssl.PEMKeyPair;
+import org.bouncycastle.openssl.PEMParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Charge les identités de signature depuis des fichiers PEM du classpath : l'identité principale
+ * ({@code private-key}/{@code certificate}) puis les paires {@code cle.pem:certificat.pem}
+ * listées dans {@code signature.certificate.identities}.
+ */
+@Component
+public class PemSigningKeyProvider implements SigningKeyProvider {
+
+    @Value("${signature.certificate.path}")
+    private String certificatePath;
+
+    @Value("${signature.certificate.private-key}")
+    private String privateKeyFile;
+
+    @Value("${signature.certificate.certificate}")
+    private String certificateFile;
+
+    @Value("${signature.certificate.identities:}")
+    private String[] additionalIdentities;
+
+    @Override
+    public List<SigningIdentity> loadIdentities() throws Exception {
+        System.out.println("Certificate path: " + certificatePath);
+        List<SigningIdentity> identities = new ArrayList<>();
+        identities.add(loadIdentity(privateKeyFile, certificateFile));
+        for (String identity : additionalIdentities) {
+            if (identity.isBlank()) {
+                continue;
+            }
+            String[] files = identity.trim().split(":");
+            if (files.length != 2) {
+                throw new IllegalArgumentException("Invalid signing identity '" + identity + "', expected key.pem:certificate.pem");
+            }
+            identities.add(loadIdentity(files[0], files[1]));
+        }
+        return identities;
+    }
+
+    private SigningIdentity loadIdentity(String keyFile, String certFile) throws Exception {
+        System.out.println("Private key file: " + keyFile);
+        System.out.println("Certificate file: " + certFile);
+
+        PrivateKey privateKey = loadPrivateKey(new ClassPathResource(certificatePath + keyFile));
+        System.out.println("Private key loaded successfully: " + privateKey.getAlgorithm());
+
+        List<X509Certificate> chain = loadCertificateChain(new ClassPathResource(certificatePath + certFile));
+        X509Certificate certificate = chain.get(0);
+        System.out.println("Certificate loaded successfully: " + certificate.getSubjectDN());
+        System.out.println("Certificate valid from: " + certificate.getNotBefore() + " to " + certificate.getNotAfter());
+
+        return new SigningIdentity(keyFile, privateKey, chain);
+    }
+
+    /**
+     * Lit une clé PEM PKCS#8 ("PRIVATE KEY") ou traditionnelle ("RSA/EC PRIVATE KEY") : RSA, EC ou Ed25519
+     */
+    private PrivateKey loadPrivateKey(ClassPathResource keyResource) throws Exception {
+        Object pem;
+        try (PEMParser parser = new PEMParser(new InputStreamReader(keyResource.getInputStream(), StandardCharsets.US_ASCII))) {
+            pem = parser.readObject();
+        }
+        PrivateKeyInfo keyInfo;
+        if (pem instanceof PrivateKeyInfo info) {
+            keyInfo = info;
+        } else if (pem instanceof PEMKeyPair keyPair) {
+            keyInfo = keyPair.getPrivateKeyInfo();
+        } else {
+            throw new Exception("No unencrypted private key found in " + keyResource.getPath());
+        }
+
+        ASN1ObjectIdentifier keyAlgorithm = keyInfo.getPrivateKeyAlgorithm().getAlgorithm();
+        String keyFactoryAlgorithm;
+        if (PKCSObjectIdentifiers.rsaEncryption.equals(keyAlgorithm)) {
+            keyFactoryAlgorithm = "RSA";
+        } else if (X9ObjectIdentifiers.id_ecPublicKey.equals(keyAlgorithm)) {
+            keyFactoryAlgorithm = "EC";
+        } else if (EdECObjectIdentifiers.id_Ed25519.equals(keyAlgorithm)) {
+            keyFactoryAlgorithm = "Ed25519";
+        } else {
+            throw new Exception("Unsupported private key algorithm: " + keyAlgorithm);
+        }
+        PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(keyInfo.getEncoded());
+        return KeyFactory.getInstance(keyFactoryAlgorithm).generatePrivate(keySpec);
+    }
+
+    private List<X509Certificate> loadCertificateChain(ClassPathResource certResource) throws Exception {
+        CertificateFactory certFactory = CertificateFactory.getInstance("X.509");
+        List<X509Certificate> chain = new ArrayList<>();
+        try (InputStream in = certResource.getInputStream()) {
+            for (Certificate cert : certFactory.generateCertificates(in)) {
+                chain.add((X509Certificate) cert);
+            }
+        }
+        if (chain.isEmpty()) {
+            throw new Exception("No certificate found in " + certResource.getPath());
+        }
+        return chain;
+    }
+}
@@ -0,0 +1,209 @@
+package com.signature.service;
+
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdfwriter.COSWriter;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.font.encoding.GlyphList;
+import org.apache.pdfbox.pdmodel.font.encoding.WinAnsiEncoding;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationWidget;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceDictionary;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceStream;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.PDSignature;
+import org.apache.pdfbox.pdmodel.interactive.form.PDAcroForm;
+import org.apache.pdfbox.pdmodel.interactive.form.PDField;
+import org.apache.pdfbox.pdmodel.interactive.form.PDSignatureField;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Apparence de la signature visible, attachée au widget du champ de signature.
+ * La partie statique du cachet (cadre, fond, titre, mention) est rendue et compressée une seule fois
+ * en Form XObject ; chaque document en reçoit une copie brute et seuls le nom du signataire
+ * et la date sont écrits, directement en WinAnsi, sans instancier de police.
+ */
+@Component
+public class SignatureAppearance {
+
+    /** Position du cachet sur la première page, en points depuis le coin inférieur gauche */
+    private static final PDRectangle BOX = new PDRectangle(50, 50, 200, 80);
+
+    private static final COSName REGULAR_FONT = COSName.getPDFName("F1");
+    private static final COSName BOLD_FONT = COSName.getPDFName("F2");
+    private static final COSName FRAME = COSName.getPDFName("Frm");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    /** Flux du cadre statique, déjà encodé en FlateDecode */
+    private final byte[] encodedFrame;
+
+    public SignatureAppearance() throws IOException {
+        this.encodedFrame = renderFrame();
+    }
+
+    /**
+     * Pose le cachet sur le widget créé par {@code PDDocument#addSignature} pour cette signature
+     */
+    public void apply(PDDocument document, PDSignature signature, String signerName, LocalDateTime signedAt)
+            throws IOException {
+        PDAnnotationWidget widget = findWidget(document, signature);
+        widget.setRectangle(BOX);
+
+        // Small dictionaries are written inline: each indirect object also costs an xref entry
+        COSDictionary fonts = new COSDictionary();
+        fonts.setDirect(true);
+        fonts.setItem(REGULAR_FONT, standardFont("Helvetica"));
+        fonts.setItem(BOLD_FONT, standardFont("Helvetica-Bold"));
+
+        // Copy of the shared frame: its encoded bytes are written as they are, without re-rendering
+        COSStream frameStream = document.getDocument().createCOSStream();
+        try (OutputStream out = frameStream.createRawOutputStream()) {
+            out.write(encodedFrame);
+        }
+        frameStream.setItem(COSName.FILTER, COSName.FLATE_DECODE);
+        PDFormXObject frame = new PDFormXObject(frameStream);
+        frame.setBBox(new PDRectangle(BOX.getWidth(), BOX.getHeight()));
+        frame.setResources(resources(fonts));
+
+        COSDictionary xObjects = new COSDictionary();
+        xObjects.setDirect(true);
+        xObjects.setItem(FRAME, frame);
+        PDResources resources = resources(fonts);
+        resources.getCOSObject().setItem(COSName.XOBJECT, xObjects);
+        PDAppearanceStream appearanceStream = new PDAppearanceStream(document);
+        appearanceStream.setBBox(new PDRectangle(BOX.getWidth(), BOX.getHeight()));
+        appearanceStream.setResources(resources);
+        try (OutputStream out = appearanceStream.getCOSObject().createOutputStream()) {
+            out.write(("/" + FRAME.getName() + " Do\n").getBytes(StandardCharsets.US_ASCII));
+            writeText(out, 9, 35, "Signataire: " + signerName);
+            writeText(out, 8, 50, "Date: " + signedAt.format(DATE_FORMAT));
+        }
+
+        PDAppearanceDictionary appearance = new PDAppearanceDictionary();
+        appearance.getCOSObject().setDirect(true);
+        appearance.setNormalAppearance(appearanceStream);
+        widget.setAppearance(appearance);
+    }
+
+    private static PDAnnotationWidget findWidget(PDDocument document, PDSignature signature) {
+        PDAcroForm acroForm = document.getDocumentCatalog().getAcroForm(null);
+        if (acroForm != null) {
+            for (PDField field : acroForm.getFieldTree()) {
+                if (field instanceof PDSignatureField signatureField
+                        && signatureField.getCOSObject().getCOSDictionary(COSName.V) == signature.getCOSObject()) {
+                    return signatureField.getWidgets().get(0);
+                }
+            }
+        }
+        throw new IllegalStateException("Signature field not found; call PDDocument#addSignature first");
+    }
+
+    /**
+     * Rend une fois pour toutes la partie statique du cachet et retourne son flux encodé
+     */
+    private static byte[] renderFrame() throws IOException {
+        try (PDDocument scratch = new PDDocument()) {
+            PDFont regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            PDFont bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+            PDResources resources = new PDResources();
+            resources.put(REGULAR_FONT, regular);
+            resources.put(BOLD_FONT, bold);
+
+            PDFormXObject form = new PDFormXObject(scratch);
+            form.setResources(resources);
+            PDAppearanceStream appearanceStream = new PDAppearanceStream(form.getCOSObject());
+
+            ByteArrayOutputStream operators = new ByteArrayOutputStream();
+            try (PDPageContentStream contentStream = new PDPageContentStream(scratch, appearanceStream, operators)) {
+                // Border
+                contentStream.setStrokingColor(Color.BLACK);
+                contentStream.setLineWidth(1);
+                contentStream.addRect(0.5f, 0.5f, BOX.getWidth() - 1, BOX.getHeight() - 1);
+                contentStream.stroke();
+
+                // Light gray background
+                contentStream.setNonStrokingColor(new Color(245, 245, 245));
+                contentStream.addRect(1, 1, BOX.getWidth() - 2, BOX.getHeight() - 2);
+                contentStream.fill();
+
+                contentStream.setNonStrokingColor(Color.BLACK);
+                showText(contentStream, bold, 10, 20, "Document signé numériquement");
+                showText(contentStream, regular, 8, 65, "Signature électronique certifiée");
+            }
+
+            COSStream encoded = scratch.getDocument().createCOSStream();
+            try (OutputStream out = encoded.createOutputStream(COSName.FLATE_DECODE)) {
+                out.write(operators.toByteArray());
+            }
+            try (InputStream in = encoded.createRawInputStream()) {
+                return in.readAllBytes();
+            }
+        }
+    }
+
+    /**
+     * Ressources d'un flux du cachet ; les dictionnaires de polices sont propres au document
+     */
+    private static PDResources resources(COSDictionary fonts) {
+        COSDictionary resources = new COSDictionary();
+        resources.setDirect(true);
+        resources.setItem(COSName.FONT, fonts);
+        return new PDResources(resources);
+    }
+
+    private static COSDictionary standardFont(String baseFont) {
+        COSDictionary font = new COSDictionary();
+        font.setItem(COSName.TYPE, COSName.FONT);
+        font.setItem(COSName.SUBTYPE, COSName.TYPE1);
+        font.setName(COSName.BASE_FONT, baseFont);
+        font.setItem(COSName.ENCODING, COSName.WIN_ANSI_ENCODING);
+        return font;
+    }
+
+    /**
+     * Écrit une ligne de texte en police normale ; les caractères absents de WinAnsi deviennent '?'
+     */
+    private static void writeText(OutputStream out, float size, float offsetFromTop, String text) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(text.length());
+        Map<String, Integer> nameToCode = WinAnsiEncoding.INSTANCE.getNameToCodeMap();
+        text.codePoints().forEach(codePoint -> {
+            Integer code = nameToCode.get(GlyphList.getAdobeGlyphList().codePointToName(codePoint));
+            encoded.write(code != null ? code : '?');
+        });
+        out.write(String.format(Locale.ROOT, "BT /%s %s Tf 10 %s Td ", REGULAR_FONT.getName(),
+            number(size), number(BOX.getHeight() - offsetFromTop)).getBytes(StandardCharsets.US_ASCII));
+        // Literal string when printable, hex otherwise
+        COSWriter.writeString(encoded.toByteArray(), out);
+        out.write(" Tj ET\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String number(float value) {
+        return value == (int) value ? Integer.toString((int) value) : Float.toString(value);
+    }
+
+    private static void showText(PDPageContentStream contentStream, PDFont font, float size,
+                                 float offsetFromTop, String text) throws IOException {
+        contentStream.beginText();
+        contentStream.setFont(font, size);
+        contentStream.newLineAtOffset(10, BOX.getHeight() - offsetFromTop);
+        contentStream.showText(text);
+        contentStream.endText();
+    }
+}
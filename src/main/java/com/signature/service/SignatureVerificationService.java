@@ -0,0 +1,398 @@
+package com.signature.service;
+
+import com.signature.dto.SignatureVerification;
+import com.signature.dto.VerificationResult;
+import com.signature.entity.Document;
+import jakarta.annotation.PostConstruct;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.PDSignature;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.cms.CMSObjectIdentifiers;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.cms.CMSTypedData;
+import org.bouncycastle.cms.SignerInformation;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoVerifierBuilder;
+import org.bouncycastle.operator.DefaultAlgorithmNameFinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.cert.CertPathBuilder;
+import java.security.cert.CertPathBuilderException;
+import java.security.cert.CertStore;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.cert.CollectionCertStoreParameters;
+import java.security.cert.PKIXBuilderParameters;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509CertSelector;
+import java.security.cert.X509Certificate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vérifie les signatures des PDF : plages d'octets, signature CMS, empreinte du contenu signé,
+ * validité du certificat à la date de signature et rattachement à une ancre de confiance.
+ * Les résultats sont conservés dans un cache LRU borné indexé par le SHA-256 du fichier :
+ * revérifier un fichier inchangé ne coûte qu'un calcul d'empreinte.
+ */
+@Service
+public class SignatureVerificationService {
+
+    @Autowired
+    private PdfMemoryGovernor pdfMemoryGovernor;
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    @Autowired
+    private PackArchiveService packArchiveService;
+
+    @Autowired
+    private SignerContextProvider signerContextProvider;
+
+    @Value("${signature.verification.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${signature.certificate.path:certificates/}")
+    private String certificatePath;
+
+    @Value("${signature.verification.trusted-certificates:}")
+    private String[] trustedCertificateFiles;
+
+    private Map<String, VerificationResult> cache;
+    private List<X509Certificate> trustedCertificates;
+    private volatile Set<X509Certificate> lastTrustAnchors = Set.of();
+
+    @PostConstruct
+    public void init() throws Exception {
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerificationResult> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        trustedCertificates = new ArrayList<>();
+        CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
+        for (String file : trustedCertificateFiles) {
+            if (file.isBlank()) {
+                continue;
+            }
+            try (InputStream in = new ClassPathResource(certificatePath + file.trim()).getInputStream()) {
+                for (Certificate certificate : certificateFactory.generateCertificates(in)) {
+                    trustedCertificates.add((X509Certificate) certificate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Vérifie le fichier signé du document, ou le fichier d'origine s'il n'est pas encore signé
+     */
+    public VerificationResult verifyDocument(Document document) throws Exception {
+        String filePath = document.getIsSigned() ? document.getSignedFilePath() : document.getFilePath();
+        if (filePath == null) {
+            throw new RuntimeException("File not found");
+        }
+        if (PackArchiveService.isPackLocation(filePath)) {
+            try (InputStream in = packArchiveService.getResource(filePath).getInputStream()) {
+                return verify(in);
+            }
+        }
+        return verify(documentStore.getLocalPath(filePath));
+    }
+
+    public VerificationResult verify(Path file) throws Exception {
+        refreshTrustAnchors();
+        String sha256;
+        try (InputStream in = Files.newInputStream(file)) {
+            sha256 = HexFormat.of().formatHex(StreamingSignature.digest(in, "SHA-256"));
+        }
+        VerificationResult cached = cache.get(sha256);
+        if (cached != null) {
+            return cached;
+        }
+        return verifyAndCache(file, sha256);
+    }
+
+    /**
+     * Vérifie un fichier envoyé par le client ; l'empreinte est calculée pendant la copie temporaire
+     */
+    public VerificationResult verify(MultipartFile upload) throws Exception {
+        try (InputStream in = upload.getInputStream()) {
+            return verify(in);
+        }
+    }
+
+    private VerificationResult verify(InputStream content) throws Exception {
+        refreshTrustAnchors();
+        Path file = Files.createTempFile("verify-", ".pdf");
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(content, messageDigest);
+                 OutputStream out = Files.newOutputStream(file)) {
+                in.transferTo(out);
+            }
+            String sha256 = HexFormat.of().formatHex(messageDigest.digest());
+            VerificationResult cached = cache.get(sha256);
+            if (cached != null) {
+                return cached;
+            }
+            return verifyAndCache(file, sha256);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private VerificationResult verifyAndCache(Path file, String sha256) throws Exception {
+        long fileSize = Files.size(file);
+        VerificationResult result;
+        // Capacity errors are not cached: only outcomes that depend on the content itself
+        try (PdfMemoryGovernor.Reservation reservation = pdfMemoryGovernor.reserve(fileSize)) {
+            result = new VerificationResult(sha256, fileSize,
+                verifySignatures(file.toFile(), fileSize, lastTrustAnchors), null);
+        } catch (IOException e) {
+            result = new VerificationResult(sha256, fileSize, List.of(), "Unreadable PDF: " + e.getMessage());
+        }
+        cache.put(sha256, result);
+        return result;
+    }
+
+    /**
+     * Ancres de confiance courantes : clés de signature chargées et certificats configurés.
+     * Les résultats en cache dépendent de ces ancres ; ils sont oubliés lorsqu'elles changent.
+     */
+    private void refreshTrustAnchors() {
+        Set<X509Certificate> anchors = new HashSet<>(trustedCertificates);
+        try {
+            anchors.addAll(signerContextProvider.getTrustAnchors());
+        } catch (Exception e) {
+            // No signing key loaded: only the configured certificates are trusted
+            System.err.println("Signing certificates unavailable for verification: " + e.getMessage());
+        }
+        if (!anchors.equals(lastTrustAnchors)) {
+            synchronized (this) {
+                if (!anchors.equals(lastTrustAnchors)) {
+                    cache.clear();
+                    lastTrustAnchors = Set.copyOf(anchors);
+                }
+            }
+        }
+    }
+
+    private List<SignatureVerification> verifySignatures(File file, long fileSize,
+                                                         Set<X509Certificate> trustAnchors) throws IOException {
+        List<SignatureVerification> verifications = new ArrayList<>();
+        try (PDDocument document = Loader.loadPDF(file, pdfMemoryGovernor.streamCache())) {
+            List<PDSignature> signatures = new ArrayList<>(document.getSignatureDictionaries());
+            // Incremental updates: the outermost signature covers the most bytes
+            signatures.sort(Comparator.comparingLong(SignatureVerificationService::signedLength));
+            for (PDSignature signature : signatures) {
+                verifications.add(verifySignature(signature, file.toPath(), fileSize, trustAnchors));
+            }
+        }
+        return verifications;
+    }
+
+    private SignatureVerification verifySignature(PDSignature signature, Path file, long fileSize,
+                                                  Set<X509Certificate> trustAnchors) {
+        LocalDateTime signedAt = signature.getSignDate() != null
+            ? LocalDateTime.ofInstant(signature.getSignDate().toInstant(), ZoneId.systemDefault())
+            : null;
+        int[] byteRange = signature.getByteRange();
+        boolean byteRangeValid = byteRange.length == 4 && byteRange[0] == 0 && byteRange[1] > 0
+            && byteRange[2] > byteRange[1] && byteRange[3] >= 0
+            && (long) byteRange[2] + byteRange[3] <= fileSize;
+        if (!byteRangeValid) {
+            return new SignatureVerification(signature.getName(), null, null, signedAt,
+                false, false, false, false, false, "Invalid byte range");
+        }
+        byte[] contents = signature.getContents();
+        try {
+            if (!gapHoldsContents(file, byteRange, contents)) {
+                return new SignatureVerification(signature.getName(), null, null, signedAt,
+                    false, false, false, false, false, "Byte range gap is not the signature contents");
+            }
+        } catch (IOException e) {
+            return new SignatureVerification(signature.getName(), null, null, signedAt,
+                false, false, false, false, false, "Unreadable byte range: " + e.getMessage());
+        }
+        boolean coversWholeDocument = (long) byteRange[2] + byteRange[3] == fileSize;
+
+        try {
+            CMSSignedData signedData = new CMSSignedData(new ByteRangeContent(file, byteRange), contents);
+            SignerInformation signer = signedData.getSignerInfos().getSigners().iterator().next();
+            @SuppressWarnings("unchecked")
+            Collection<X509CertificateHolder> certificates = signedData.getCertificates().getMatches(signer.getSID());
+            if (certificates.isEmpty()) {
+                return new SignatureVerification(signature.getName(), null, null, signedAt,
+                    false, true, coversWholeDocument, false, false, "Signer certificate not embedded");
+            }
+            X509CertificateHolder certificate = certificates.iterator().next();
+            // Checks the signed attributes and recomputes the digest over the byte ranges, streamed from disk
+            boolean cmsValid = signer.verify(new JcaSimpleSignerInfoVerifierBuilder().build(certificate));
+            String algorithm = new DefaultAlgorithmNameFinder().getAlgorithmName(new ASN1ObjectIdentifier(signer.getEncryptionAlgOID()));
+
+            // Without a timestamp the claimed signing date is the only reference for the validity period
+            Date signingTime = signature.getSignDate() != null ? signature.getSignDate().getTime() : new Date();
+            boolean certificateValid = certificate.isValidOn(signingTime);
+            boolean trusted = isTrusted(certificate, signedData, signingTime, trustAnchors);
+            String error = !cmsValid ? "Signature does not match content"
+                : !certificateValid ? "Signer certificate not valid at signing time"
+                : !trusted ? "Signer certificate is not trusted"
+                : null;
+            return new SignatureVerification(signature.getName(), certificate.getSubject().toString(), algorithm,
+                signedAt, cmsValid, true, coversWholeDocument, certificateValid, trusted, error);
+        } catch (Exception e) {
+            return new SignatureVerification(signature.getName(), null, null, signedAt,
+                false, true, coversWholeDocument, false, false, "Invalid CMS signature: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Le trou entre les deux plages signées doit être exactement la chaîne hexadécimale /Contents :
+     * sinon des octets non signés peuvent s'y glisser
+     */
+    private static boolean gapHoldsContents(Path file, int[] byteRange, byte[] contents) throws IOException {
+        long gapStart = byteRange[1];
+        long gapLength = (long) byteRange[2] - byteRange[1];
+        if (gapLength != 2L * contents.length + 2) {
+            return false;
+        }
+        ByteBuffer gap = ByteBuffer.allocate((int) gapLength);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (gap.hasRemaining()) {
+                if (channel.read(gap, gapStart + gap.position()) < 0) {
+                    return false;
+                }
+            }
+        }
+        byte[] bytes = gap.array();
+        if (bytes[0] != '<' || bytes[bytes.length - 1] != '>') {
+            return false;
+        }
+        try {
+            return Arrays.equals(HexFormat.of().parseHex(new String(bytes, 1, bytes.length - 2, StandardCharsets.US_ASCII)),
+                contents);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Le certificat est une ancre, ou une chaîne valide à la date de signature y mène
+     * à l'aide des certificats intermédiaires embarqués dans la signature
+     */
+    private static boolean isTrusted(X509CertificateHolder certificate, CMSSignedData signedData, Date signingTime,
+                                     Set<X509Certificate> trustAnchors) throws Exception {
+        if (trustAnchors.isEmpty()) {
+            return false;
+        }
+        JcaX509CertificateConverter converter = new JcaX509CertificateConverter();
+        X509Certificate signerCertificate = converter.getCertificate(certificate);
+        if (trustAnchors.contains(signerCertificate)) {
+            return true;
+        }
+        List<X509Certificate> embedded = new ArrayList<>();
+        for (X509CertificateHolder holder : signedData.getCertificates().getMatches(null)) {
+            embedded.add(converter.getCertificate(holder));
+        }
+        Set<TrustAnchor> anchors = new HashSet<>();
+        for (X509Certificate anchor : trustAnchors) {
+            anchors.add(new TrustAnchor(anchor, null));
+        }
+        X509CertSelector target = new X509CertSelector();
+        target.setCertificate(signerCertificate);
+        PKIXBuilderParameters parameters = new PKIXBuilderParameters(anchors, target);
+        parameters.addCertStore(CertStore.getInstance("Collection", new CollectionCertStoreParameters(embedded)));
+        // No revocation source is configured; validity periods are checked at the signing date
+        parameters.setRevocationEnabled(false);
+        parameters.setDate(signingTime);
+        try {
+            CertPathBuilder.getInstance("PKIX").build(parameters);
+            return true;
+        } catch (CertPathBuilderException e) {
+            return false;
+        }
+    }
+
+    private static long signedLength(PDSignature signature) {
+        int[] byteRange = signature.getByteRange();
+        return byteRange.length == 4 ? (long) byteRange[2] + byteRange[3] : 0;
+    }
+
+    /**
+     * Contenu signé d'un PDF : les plages d'octets lues directement depuis le fichier
+     */
+    private static final class ByteRangeContent implements CMSTypedData {
+
+        private final Path file;
+        private final int[] byteRange;
+
+        ByteRangeContent(Path file, int[] byteRange) {
+            this.file = file;
+            this.byteRange = byteRange;
+        }
+
+        @Override
+        public ASN1ObjectIdentifier getContentType() {
+            return CMSObjectIdentifiers.data;
+        }
+
+        @Override
+        public void write(OutputStream out) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                for (int i = 0; i < byteRange.length; i += 2) {
+                    long position = byteRange[i];
+                    long remaining = byteRange[i + 1];
+                    while (remaining > 0) {
+                        long transferred = channel.transferTo(position, remaining, target);
+                        if (transferred <= 0) {
+                            throw new EOFException("Byte range exceeds file size");
+                        }
+                        position += transferred;
+                        remaining -= transferred;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Object getContent() {
+            return file;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.signature.service;
+
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cms.CMSAbsentContent;
+import org.bouncycastle.cms.CMSSignedDataGenerator;
+import org.bouncycastle.cms.SignerInfoGeneratorBuilder;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.DigestCalculator;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.util.CollectionStore;
+import org.bouncycastle.util.Store;
+
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contexte de signature construit une seule fois et partagé entre les threads.
+ * Contient la clé privée, la chaîne de certificats, le magasin de certificats encodé
+ * et un pool de {@link ContentSigner} réutilisables : aucune recherche de fournisseur
+ * JCA ni construction de builder n'a lieu pendant la signature.
+ */
+public class SignerContext {
+
+    /**
+     * Marge ajoutée à la taille mesurée : longueur variable d'une signature ECDSA (DER)
+     * et des champs d'encodage des attributs signés
+     */
+    private static final int SIGNATURE_SIZE_MARGIN = 64;
+
+    private final SigningAlgorithm algorithm;
+    private final PrivateKey privateKey;
+    private final List<X509Certificate> certificateChain;
+    private final X509CertificateHolder signingCertificate;
+    private final Store<X509CertificateHolder> certificateStore;
+    private final BlockingQueue<ContentSigner> contentSigners;
+    private final AtomicInteger signatureSize;
+
+    public SignerContext(PrivateKey privateKey, List<X509Certificate> certificateChain, int poolSize) throws Exception {
+        if (certificateChain.isEmpty()) {
+            throw new IllegalArgumentException("Certificate chain is empty");
+        }
+        this.algorithm = SigningAlgorithm.forKey(privateKey);
+        this.privateKey = privateKey;
+        this.certificateChain = List.copyOf(certificateChain);
+        this.signingCertificate = new JcaX509CertificateHolder(certificateChain.get(0));
+        List<X509CertificateHolder> holders = new ArrayList<>();
+        for (X509Certificate certificate : this.certificateChain) {
+            holders.add(new JcaX509CertificateHolder(certificate));
+        }
+        this.certificateStore = new CollectionStore<>(holders);
+        this.contentSigners = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            contentSigners.add(newContentSigner());
+        }
+        this.signatureSize = new AtomicInteger(measureSignatureSize() + SIGNATURE_SIZE_MARGIN);
+    }
+
+    public X509Certificate getCertificate() {
+        return certificateChain.get(0);
+    }
+
+    public List<X509Certificate> getCertificateChain() {
+        return certificateChain;
+    }
+
+    public SigningAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getSignatureAlgorithm() {
+        return algorithm.getJcaName();
+    }
+
+    /**
+     * Taille en octets à réserver dans le champ /Contents du PDF pour la signature CMS.
+     * Mesurée une fois sur une signature réelle : clé, chaîne de certificats et attributs signés.
+     */
+    public int getSignatureSize() {
+        return signatureSize.get();
+    }
+
+    /**
+     * Agrandit la réservation après une signature plus grande que prévu et retourne la nouvelle taille
+     */
+    public int growSignatureSize(int requiredSize) {
+        return signatureSize.accumulateAndGet(requiredSize + SIGNATURE_SIZE_MARGIN, Math::max);
+    }
+
+    /**
+     * Construit la signature CMS détachée (PKCS#7) à partir d'une empreinte déjà calculée
+     * avec {@link SigningAlgorithm#getDigestAlgorithm()}
+     */
+    public byte[] signDigest(byte[] contentDigest) throws Exception {
+        ContentSigner contentSigner = borrowContentSigner();
+        boolean reusable = false;
+        try {
+            CMSSignedDataGenerator generator = new CMSSignedDataGenerator();
+            generator.addSignerInfoGenerator(
+                new SignerInfoGeneratorBuilder(new PrecomputedDigestProvider(algorithm, contentDigest))
+                    .build(contentSigner, signingCertificate)
+            );
+            generator.addCertificates(certificateStore);
+
+            // Contenu absent : l'attribut messageDigest provient de l'empreinte précalculée
+            byte[] encoded = generator.generate(new CMSAbsentContent(), false).getEncoded();
+            reusable = true;
+            return encoded;
+        } finally {
+            // A signer that failed mid-operation may hold partial state: drop it
+            if (reusable) {
+                contentSigners.offer(contentSigner);
+            }
+        }
+    }
+
+    private int measureSignatureSize() throws Exception {
+        int digestLength = MessageDigest.getInstance(algorithm.getDigestAlgorithm()).getDigestLength();
+        return signDigest(new byte[digestLength]).length;
+    }
+
+    private ContentSigner borrowContentSigner() throws OperatorCreationException {
+        ContentSigner contentSigner = contentSigners.poll();
+        return contentSigner != null ? contentSigner : newContentSigner();
+    }
+
+    private ContentSigner newContentSigner() throws OperatorCreationException {
+        return new JcaContentSignerBuilder(algorithm.getJcaName()).build(privateKey);
+    }
+
+    /**
+     * Fournit à Bouncy Castle l'empreinte déjà calculée au lieu de re-hacher le contenu
+     */
+    private static final class PrecomputedDigestProvider implements DigestCalculatorProvider {
+
+        private final SigningAlgorithm algorithm;
+        private final byte[] digest;
+
+        PrecomputedDigestProvider(SigningAlgorithm algorithm, byte[] digest) {
+            this.algorithm = algorithm;
+            this.digest = digest;
+        }
+
+        @Override
+        public DigestCalculator get(AlgorithmIdentifier digestAlgorithm) throws OperatorCreationException {
+            if (!algorithm.getDigestOid().equals(digestAlgorithm.getAlgorithm())) {
+                throw new OperatorCreationException("Unsupported digest algorithm: " + digestAlgorithm.getAlgorithm());
+            }
+            return new DigestCalculator() {
+                @Override
+                public AlgorithmIdentifier getAlgorithmIdentifier() {
+                    return digestAlgorithm;
+                }
+
+                @Override
+                public OutputStream getOutputStream() {
+                    return OutputStream.nullOutputStream();
+                }
+
+                @Override
+                public byte[] getDigest() {
+                    return digest.clone();
+                }
+            };
+        }
+    }
+}
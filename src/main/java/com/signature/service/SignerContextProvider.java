@@ -0,0 +1,251 @@
+package com.signature.service;
+
+import com.signature.dto.SigningKeyStatus;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Charge les identités de signature au démarrage et répartit les signatures entre elles.
+ * Chaque identité dispose de son propre {@link SignerContext}, d'une limite de signatures
+ * simultanées et de compteurs ; {@link #acquire()} choisit la clé la moins chargée.
+ * L'ensemble est remplacé de façon atomique par {@link #refresh()}, ce qui permet d'ajouter
+ * une nouvelle clé puis de retirer l'ancienne sans interruption.
+ */
+@Component
+public class SignerContextProvider {
+
+    @Autowired
+    private SigningKeyProvider signingKeyProvider;
+
+    @Value("${signature.certificate.signer-pool-size:0}")
+    private int signerPoolSize;
+
+    @Value("${signature.certificate.max-concurrency-per-key:0}")
+    private int maxConcurrencyPerKey;
+
+    @Value("${signature.certificate.acquire-timeout:60s}")
+    private Duration acquireTimeout;
+
+    private volatile KeyPool keyPool;
+
+    @PostConstruct
+    public void init() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // Startup must not fail on missing certificates: the next signing retries the load
+            System.err.println("Error loading certificate or private key: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retourne le contexte de l'identité principale, en le chargeant si le chargement initial a échoué
+     */
+    public SignerContext getContext() throws Exception {
+        return currentPool().slots.get(0).context;
+    }
+
+    /**
+     * Réserve la clé la moins chargée, en attendant qu'une clé se libère si toutes sont à leur limite.
+     * La réservation est libérée à la fermeture.
+     */
+    public Lease acquire() throws Exception {
+        KeyPool pool = currentPool();
+        if (pool.capacity != null
+                && !pool.capacity.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new RuntimeException("All signing keys are busy, please retry later");
+        }
+        // Holding a pool permit guarantees that at least one key has a free slot
+        while (true) {
+            for (KeySlot slot : pool.slotsByLoad()) {
+                if (slot.tryAcquire()) {
+                    return new Lease(pool, slot);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Relit les identités puis remplace l'ensemble des clés.
+     * Les signatures en cours terminent avec les anciens contextes.
+     */
+    public synchronized List<SignerContext> refresh() throws Exception {
+        try {
+            System.out.println("Loading certificate and private key...");
+            List<SigningIdentity> identities = signingKeyProvider.loadIdentities();
+            if (identities.isEmpty()) {
+                throw new Exception("No signing identity configured");
+            }
+
+            int poolSize = signerPoolSize > 0 ? signerPoolSize : Runtime.getRuntime().availableProcessors();
+            List<KeySlot> slots = new ArrayList<>();
+            List<SignerContext> contexts = new ArrayList<>();
+            for (SigningIdentity identity : identities) {
+                SignerContext context = new SignerContext(identity.getPrivateKey(), identity.getCertificateChain(), poolSize);
+                System.out.println("Signing key " + identity.getName() + ": " + context.getSignatureAlgorithm());
+                slots.add(new KeySlot(identity.getName(), context, maxConcurrencyPerKey));
+                contexts.add(context);
+            }
+            keyPool = new KeyPool(slots, maxConcurrencyPerKey);
+            return contexts;
+        } catch (Exception e) {
+            System.err.println("Error loading certificate or private key: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Compteurs par clé : signatures en cours, réussies, échouées et durée moyenne
+     */
+    public List<SigningKeyStatus> getKeyStatuses() throws Exception {
+        List<SigningKeyStatus> statuses = new ArrayList<>();
+        for (KeySlot slot : currentPool().slots) {
+            long completed = slot.completed.get();
+            statuses.add(new SigningKeyStatus(
+                slot.name,
+                slot.context.getCertificate().getSubjectDN().getName(),
+                slot.context.getSignatureAlgorithm(),
+                slot.context.getCertificate().getNotAfter(),
+                slot.maxConcurrency,
+                slot.inFlight.get(),
+                completed,
+                slot.failed.get(),
+                completed > 0 ? slot.busyNanos.get() / completed / 1_000_000 : 0
+            ));
+        }
+        return statuses;
+    }
+
+    /**
+     * Dernier certificat de la chaîne de chaque identité chargée : ancres de confiance de la vérification
+     */
+    public List<X509Certificate> getTrustAnchors() throws Exception {
+        List<X509Certificate> anchors = new ArrayList<>();
+        for (KeySlot slot : currentPool().slots) {
+            List<X509Certificate> chain = slot.context.getCertificateChain();
+            anchors.add(chain.get(chain.size() - 1));
+        }
+        return anchors;
+    }
+
+    private KeyPool currentPool() throws Exception {
+        KeyPool pool = keyPool;
+        if (pool == null) {
+            synchronized (this) {
+                if (keyPool == null) {
+                    refresh();
+                }
+                pool = keyPool;
+            }
+        }
+        return pool;
+    }
+
+    private static final class KeyPool {
+
+        private final List<KeySlot> slots;
+        private final Semaphore capacity;
+
+        KeyPool(List<KeySlot> slots, int maxConcurrencyPerKey) {
+            this.slots = List.copyOf(slots);
+            this.capacity = maxConcurrencyPerKey > 0 ? new Semaphore(maxConcurrencyPerKey * slots.size(), true) : null;
+        }
+
+        List<KeySlot> slotsByLoad() {
+            List<KeySlot> ordered = new ArrayList<>(slots);
+            ordered.sort(Comparator.comparingInt((KeySlot slot) -> slot.inFlight.get())
+                .thenComparingLong(slot -> slot.completed.get()));
+            return ordered;
+        }
+    }
+
+    private static final class KeySlot {
+
+        private final String name;
+        private final SignerContext context;
+        private final int maxConcurrency;
+        private final Semaphore permits;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+
+        KeySlot(String name, SignerContext context, int maxConcurrency) {
+            this.name = name;
+            this.context = context;
+            this.maxConcurrency = maxConcurrency;
+            this.permits = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+        }
+
+        boolean tryAcquire() {
+            if (permits != null && !permits.tryAcquire()) {
+                return false;
+            }
+            inFlight.incrementAndGet();
+            return true;
+        }
+    }
+
+    public static final class Lease implements AutoCloseable {
+
+        private final KeyPool pool;
+        private final KeySlot slot;
+        private final long startedAt = System.nanoTime();
+        private boolean succeeded;
+        private boolean released;
+
+        private Lease(KeyPool pool, KeySlot slot) {
+            this.pool = pool;
+            this.slot = slot;
+        }
+
+        public SignerContext getContext() {
+            return slot.context;
+        }
+
+        public String getKeyName() {
+            return slot.name;
+        }
+
+        /**
+         * Compte la signature comme réussie ; sans cet appel elle est comptée en échec
+         */
+        public void succeeded() {
+            succeeded = true;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            if (succeeded) {
+                slot.completed.incrementAndGet();
+                slot.busyNanos.addAndGet(System.nanoTime() - startedAt);
+            } else {
+                slot.failed.incrementAndGet();
+            }
+            slot.inFlight.decrementAndGet();
+            if (slot.permits != null) {
+                slot.permits.release();
+            }
+            if (pool.capacity != null) {
+                pool.capacity.release();
+            }
+        }
+    }
+}
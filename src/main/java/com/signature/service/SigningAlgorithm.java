@@ -0,0 +1,65 @@
+package com.signature.service;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.nist.NISTObjectIdentifiers;
+
+import java.security.PrivateKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.EdECPrivateKey;
+import java.security.interfaces.RSAPrivateKey;
+
+/**
+ * Algorithmes de signature pris en charge, déduits du type de la clé privée configurée
+ */
+public enum SigningAlgorithm {
+    SHA256_WITH_RSA("SHA256withRSA", "SHA-256", NISTObjectIdentifiers.id_sha256),
+    SHA256_WITH_ECDSA("SHA256withECDSA", "SHA-256", NISTObjectIdentifiers.id_sha256),
+    SHA384_WITH_ECDSA("SHA384withECDSA", "SHA-384", NISTObjectIdentifiers.id_sha384),
+    // RFC 8419: Ed25519 in CMS uses SHA-512 for the message digest attribute
+    ED25519("Ed25519", "SHA-512", NISTObjectIdentifiers.id_sha512);
+
+    private final String jcaName;
+    private final String digestAlgorithm;
+    private final ASN1ObjectIdentifier digestOid;
+
+    SigningAlgorithm(String jcaName, String digestAlgorithm, ASN1ObjectIdentifier digestOid) {
+        this.jcaName = jcaName;
+        this.digestAlgorithm = digestAlgorithm;
+        this.digestOid = digestOid;
+    }
+
+    public String getJcaName() {
+        return jcaName;
+    }
+
+    public String getDigestAlgorithm() {
+        return digestAlgorithm;
+    }
+
+    public ASN1ObjectIdentifier getDigestOid() {
+        return digestOid;
+    }
+
+    /**
+     * Choisit l'algorithme adapté à la clé : RSA, ECDSA P-256/P-384 ou Ed25519
+     */
+    public static SigningAlgorithm forKey(PrivateKey privateKey) {
+        if (privateKey instanceof RSAPrivateKey) {
+            return SHA256_WITH_RSA;
+        }
+        if (privateKey instanceof ECPrivateKey ecKey) {
+            int fieldSize = ecKey.getParams().getCurve().getField().getFieldSize();
+            if (fieldSize == 256) {
+                return SHA256_WITH_ECDSA;
+            }
+            if (fieldSize == 384) {
+                return SHA384_WITH_ECDSA;
+            }
+            throw new IllegalArgumentException("Unsupported EC key size: " + fieldSize);
+        }
+        if (privateKey instanceof EdECPrivateKey edKey && "Ed25519".equalsIgnoreCase(edKey.getParams().getName())) {
+            return ED25519;
+        }
+        throw new IllegalArgumentException("Unsupported signing key type: " + privateKey.getAlgorithm());
+    }
+}
@@ -0,0 +1,33 @@
+package com.signature.service;
+
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+/**
+ * Identité de signature : une clé privée et sa chaîne de certificats (certificat signataire en tête)
+ */
+public class SigningIdentity {
+
+    private final String name;
+    private final PrivateKey privateKey;
+    private final List<X509Certificate> certificateChain;
+
+    public SigningIdentity(String name, PrivateKey privateKey, List<X509Certificate> certificateChain) {
+        this.name = name;
+        this.privateKey = privateKey;
+        this.certificateChain = List.copyOf(certificateChain);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PrivateKey getPrivateKey() {
+        return privateKey;
+    }
+
+    public List<X509Certificate> getCertificateChain() {
+        return certificateChain;
+    }
+}
@@ -0,0 +1,93 @@
+package com.signature.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tâche de signature asynchrone, conservée en mémoire le temps que le client récupère son état
+ */
+public class SigningJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long documentId;
+    private final String signerName;
+    private final Long ownerId;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile SigningStage stage;
+    private volatile String error;
+    private volatile LocalDateTime finishedAt;
+
+    @JsonIgnore
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    public SigningJob(Long documentId, String signerName, Long ownerId) {
+        this.documentId = documentId;
+        this.signerName = signerName;
+        this.ownerId = ownerId;
+    }
+
+    public String getId() { return id; }
+
+    public Long getDocumentId() { return documentId; }
+
+    public String getSignerName() { return signerName; }
+
+    @JsonIgnore
+    public Long getOwnerId() { return ownerId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public Status getStatus() { return status; }
+
+    public SigningStage getStage() { return stage; }
+
+    public int getProgress() {
+        if (status == Status.COMPLETED || status == Status.FAILED) {
+            return 100;
+        }
+        SigningStage current = stage;
+        return current != null ? current.getProgress() : 0;
+    }
+
+    public String getError() { return error; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    @JsonIgnore
+    List<SseEmitter> getEmitters() { return emitters; }
+
+    void start() {
+        this.status = Status.RUNNING;
+    }
+
+    void stage(SigningStage stage) {
+        this.stage = stage;
+    }
+
+    void complete() {
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+}
@@ -0,0 +1,156 @@
+package com.signature.service;
+
+import com.signature.entity.Document;
+import com.signature.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exécute les signatures sur un pool dédié pour libérer les threads HTTP.
+ * L'état des tâches est consultable par polling ou suivi en temps réel via Server-Sent Events.
+ */
+@Service
+public class SigningJobService {
+
+    @Autowired
+    private SignatureService signatureService;
+
+    @Autowired
+    private ThreadPoolTaskExecutor signingJobExecutor;
+
+    @Value("${signature.jobs.retention-minutes:30}")
+    private long retentionMinutes;
+
+    @Value("${signature.jobs.sse-timeout-seconds:300}")
+    private long sseTimeoutSeconds;
+
+    private final Map<String, SigningJob> jobs = new ConcurrentHashMap<>();
+
+    // Queued or running job of each document, so repeated requests share it
+    private final Map<Long, SigningJob> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Récupère l'utilisateur actuellement connecté
+     */
+    private User getCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getName())) {
+            return (User) auth.getPrincipal();
+        }
+        return null;
+    }
+
+    /**
+     * Met en file la signature d'un document déjà chargé et retourne immédiatement la tâche.
+     * Si le document a déjà une tâche en attente ou en cours, c'est elle qui est retournée.
+     * @throws TaskRejectedException si la file de signature est pleine
+     */
+    public SigningJob submit(Document document, String signerName) {
+        purgeExpiredJobs();
+
+        User currentUser = getCurrentUser();
+        SigningJob job = new SigningJob(document.getId(), signerName, currentUser != null ? currentUser.getId() : null);
+        SigningJob existing = inFlight.putIfAbsent(document.getId(), job);
+        if (existing != null) {
+            return existing;
+        }
+        jobs.put(job.getId(), job);
+        try {
+            signingJobExecutor.execute(() -> run(job, document));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            inFlight.remove(document.getId(), job);
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Récupère une tâche si elle appartient à l'utilisateur connecté
+     */
+    public Optional<SigningJob> getJob(String jobId) {
+        SigningJob job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        User currentUser = getCurrentUser();
+        if (job.getOwnerId() != null && (currentUser == null || !job.getOwnerId().equals(currentUser.getId()))) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    /**
+     * Ouvre un flux SSE qui reçoit l'état de la tâche à chaque changement d'étape
+     */
+    public SseEmitter subscribe(SigningJob job) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutSeconds * 1000);
+        emitter.onCompletion(() -> job.getEmitters().remove(emitter));
+        emitter.onTimeout(() -> job.getEmitters().remove(emitter));
+        emitter.onError(e -> job.getEmitters().remove(emitter));
+        job.getEmitters().add(emitter);
+
+        // Current state first, so late subscribers never miss the outcome
+        send(job, emitter);
+        if (job.isFinished()) {
+            job.getEmitters().remove(emitter);
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private void run(SigningJob job, Document document) {
+        job.start();
+        publish(job);
+        try {
+            signatureService.signDocument(document, job.getSignerName(), stage -> {
+                job.stage(stage);
+                publish(job);
+            });
+            job.complete();
+        } catch (Exception e) {
+            System.err.println("Error in signing job " + job.getId() + ": " + e.getMessage());
+            job.fail(e.getMessage());
+        } finally {
+            inFlight.remove(job.getDocumentId(), job);
+        }
+        publish(job);
+        for (SseEmitter emitter : job.getEmitters()) {
+            emitter.complete();
+        }
+        job.getEmitters().clear();
+    }
+
+    private void publish(SigningJob job) {
+        for (SseEmitter emitter : job.getEmitters()) {
+            send(job, emitter);
+        }
+    }
+
+    private void send(SigningJob job, SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event()
+                .name(job.isFinished() ? "complete" : "progress")
+                .data(job));
+        } catch (Exception e) {
+            // Client went away: stop pushing to this emitter
+            job.getEmitters().remove(emitter);
+        }
+    }
+
+    private void purgeExpiredJobs() {
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(limit));
+    }
+}
@@ -0,0 +1,15 @@
+package com.signature.service;
+
+import java.util.List;
+
+/**
+ * Source des identités de signature utilisées par {@link SignerContextProvider}.
+ * Permet de remplacer les fichiers PEM par un autre stockage, ou par des clés générées dans les tests.
+ */
+public interface SigningKeyProvider {
+
+    /**
+     * Charge toutes les identités configurées ; la liste ne doit pas être vide
+     */
+    List<SigningIdentity> loadIdentities() throws Exception;
+}
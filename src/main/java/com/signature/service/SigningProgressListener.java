@@ -0,0 +1,12 @@
+package com.signature.service;
+
+/**
+ * Reçoit les changements d'étape pendant la signature d'un document
+ */
+@FunctionalInterface
+public interface SigningProgressListener {
+
+    SigningProgressListener NONE = stage -> { };
+
+    void onStage(SigningStage stage);
+}
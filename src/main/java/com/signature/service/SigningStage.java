@@ -0,0 +1,21 @@
+package com.signature.service;
+
+/**
+ * Étapes successives de la signature d'un document, avec la progression associée
+ */
+public enum SigningStage {
+    LOADING(15),
+    STAMPING(35),
+    SIGNING(60),
+    SAVING(85);
+
+    private final int progress;
+
+    SigningStage(int progress) {
+        this.progress = progress;
+    }
+
+    public int getProgress() {
+        return progress;
+    }
+}
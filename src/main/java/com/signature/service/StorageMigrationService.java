@@ -0,0 +1,117 @@
+package com.signature.service;
+
+import com.signature.entity.Document;
+import com.signature.repository.DocumentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Déplace les fichiers enregistrés sous leur ancien chemin complet vers le {@link DocumentStore}
+ * et remplace le chemin par la clé. Les documents sont parcourus par pages d'identifiants :
+ * la migration peut être interrompue et relancée, les documents déjà migrés sont ignorés.
+ */
+@Service
+public class StorageMigrationService {
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    @Value("${signature.storage.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (migrateOnStartup) {
+            migrate();
+        }
+    }
+
+    /**
+     * Vrai pendant une migration : le récupérateur de fichiers orphelins attend qu'elle soit terminée
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * @return le nombre de fichiers migrés
+     */
+    public int migrate() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Storage migration already in progress");
+        }
+        try {
+            System.out.println("Migrating legacy document files to the sharded layout...");
+            int migrated = 0;
+            int missing = 0;
+            Long lastId = 0L;
+            List<Document> page;
+            while (!(page = documentRepository.findTop500ByIdGreaterThanOrderByIdAsc(lastId)).isEmpty()) {
+                for (Document document : page) {
+                    lastId = document.getId();
+                    boolean changed = false;
+                    try {
+                        String fileKey = migrateLocation(document.getFilePath());
+                        if (fileKey != null) {
+                            document.setFilePath(fileKey);
+                            changed = true;
+                        }
+                        String signedKey = migrateLocation(document.getSignedFilePath());
+                        if (signedKey != null) {
+                            document.setSignedFilePath(signedKey);
+                            changed = true;
+                        }
+                    } catch (IOException e) {
+                        // Whatever was already moved is still recorded below
+                        missing++;
+                        System.err.println("Cannot migrate files of document " + document.getId() + ": " + e.getMessage());
+                    }
+                    if (changed) {
+                        documentRepository.save(document);
+                        migrated++;
+                    }
+                }
+            }
+            System.out.println("Storage migration done: " + migrated + " documents migrated, " + missing + " skipped");
+            return migrated;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Publie le fichier sous son nom et retourne la clé, ou null s'il n'y a rien à migrer
+     */
+    private String migrateLocation(String location) throws IOException {
+        if (location == null || !FileSystemDocumentStore.isLegacyLocation(location)) {
+            return null;
+        }
+        Path legacyPath = Paths.get(location);
+        String key = legacyPath.getFileName().toString();
+        // A key already present was moved for another document sharing the same content
+        if (documentStore.exists(key)) {
+            return key;
+        }
+        if (Files.exists(legacyPath)) {
+            documentStore.put(key, legacyPath);
+        } else {
+            throw new IOException("File not found: " + location);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,277 @@
+package com.signature.service;
+
+import com.signature.dto.StorageReclaimReport;
+import com.signature.repository.DocumentRepository;
+import com.signature.repository.StoredBlobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Supprime les fichiers du {@link DocumentStore} qui ne sont plus référencés :
+ * ni par un document (fichier d'origine ou signé), ni par un contenu partagé.
+ * Le stockage est parcouru partition par partition à partir d'un point de reprise enregistré,
+ * à débit limité. Seuls les fichiers plus anciens que le délai de grâce sont concernés,
+ * ce qui laisse aux écritures en cours le temps d'enregistrer leur référence.
+ * Un orphelin est d'abord mis en quarantaine puis revérifié avant d'être supprimé.
+ */
+@Service
+public class StorageReclaimer {
+
+    /** Partitions parcourues entre deux écritures du point de reprise */
+    private static final int CHECKPOINT_INTERVAL = 64;
+
+    private static final Pattern BLOB_KEY = Pattern.compile("[0-9a-f]{64}\\.pdf");
+
+    public enum Mode {
+        /** Les orphelins sont conservés à part pendant la durée de rétention */
+        QUARANTINE,
+        /** Les orphelins sont supprimés immédiatement */
+        DELETE
+    }
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private StoredBlobRepository storedBlobRepository;
+
+    @Autowired
+    private BlobStorageService blobStorageService;
+
+    @Autowired
+    private StorageMigrationService storageMigrationService;
+
+    @Value("${signature.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${signature.gc.mode:quarantine}")
+    private Mode mode;
+
+    @Value("${signature.gc.grace-period:24h}")
+    private Duration gracePeriod;
+
+    @Value("${signature.gc.quarantine-retention:7d}")
+    private Duration quarantineRetention;
+
+    @Value("${signature.gc.shards-per-run:1024}")
+    private int shardsPerRun;
+
+    @Value("${signature.gc.max-files-per-second:500}")
+    private int maxFilesPerSecond;
+
+    @Value("${signature.gc.checkpoint-file:${signature.storage.path}/gc-checkpoint}")
+    private String checkpointFile;
+
+    // Temp files of resumable uploads must outlive their session
+    @Value("${signature.upload.session-timeout:24h}")
+    private Duration uploadSessionTimeout;
+
+    private final AtomicLong totalBytesReclaimed = new AtomicLong();
+
+    private volatile StorageReclaimReport lastReport;
+
+    @Scheduled(fixedDelayString = "${signature.gc.interval:PT5M}", initialDelayString = "${signature.gc.initial-delay:PT1M}")
+    public void scheduledRun() {
+        // Files being migrated are published before their document row records the new key
+        if (!enabled || storageMigrationService.isRunning()) {
+            return;
+        }
+        try {
+            run();
+        } catch (Exception e) {
+            System.err.println("Error reclaiming orphaned files: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parcourt les partitions suivantes jusqu'à {@code shards-per-run} ou la fin du stockage,
+     * en s'arrêtant si une migration du stockage démarre
+     * @throws IllegalStateException si une migration du stockage est en cours
+     */
+    public synchronized StorageReclaimReport run() throws IOException, InterruptedException {
+        if (storageMigrationService.isRunning()) {
+            throw new IllegalStateException("Storage migration in progress");
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        Instant graceLimit = Instant.now().minus(gracePeriod);
+        int shardCount = documentStore.getShardCount();
+        int firstShard = readCheckpoint(shardCount);
+
+        Counters counters = new Counters();
+        long startNanos = System.nanoTime();
+        int shard = firstShard;
+        for (int i = 0; i < shardsPerRun && !storageMigrationService.isRunning(); i++) {
+            List<StoredFile> files = documentStore.list(shard);
+            counters.filesScanned += files.size();
+            reclaimShard(files, graceLimit, counters);
+
+            shard = (shard + 1) % shardCount;
+            if (shard % CHECKPOINT_INTERVAL == 0) {
+                writeCheckpoint(shard);
+            }
+            throttle(counters.filesScanned, startNanos);
+            if (shard == 0) {
+                System.out.println("Storage reclaimer completed a full pass over " + shardCount + " shards");
+                break;
+            }
+        }
+        writeCheckpoint(shard);
+
+        reclaimTemporaryFiles(counters);
+        purgeQuarantine(counters);
+
+        long total = totalBytesReclaimed.addAndGet(counters.bytesReclaimed);
+        StorageReclaimReport report = new StorageReclaimReport(startedAt, LocalDateTime.now(), firstShard, shard,
+            shardCount, counters.filesScanned, counters.orphansFound, counters.quarantinedBytes,
+            counters.temporaryFilesDeleted, counters.bytesReclaimed, total);
+        lastReport = report;
+        if (counters.orphansFound > 0 || counters.bytesReclaimed > 0) {
+            System.out.println("Storage reclaimer: " + counters.orphansFound + " orphans in shards "
+                + firstShard + "-" + shard + ", " + counters.bytesReclaimed + " bytes reclaimed");
+        }
+        return report;
+    }
+
+    public StorageReclaimReport getLastReport() {
+        return lastReport;
+    }
+
+    private void reclaimShard(List<StoredFile> files, Instant graceLimit, Counters counters) throws IOException {
+        List<String> candidates = new ArrayList<>();
+        for (StoredFile file : files) {
+            if (file.getLastModified().isBefore(graceLimit)) {
+                candidates.add(file.getKey());
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        Set<String> referenced = referencedKeys(candidates);
+        for (String key : candidates) {
+            if (!referenced.contains(key)) {
+                reclaim(key, graceLimit, counters);
+            }
+        }
+    }
+
+    private void reclaim(String key, Instant graceLimit, Counters counters) throws IOException {
+        StoredFile moved = documentStore.quarantine(key).orElse(null);
+        if (moved == null) {
+            return;
+        }
+        // Re-checked once the file is out of reach: a reference or a fresh copy may have arrived meanwhile
+        if (!moved.getLastModified().isBefore(graceLimit) || referencedKeys(List.of(key)).contains(key)) {
+            documentStore.restore(key);
+            return;
+        }
+        counters.orphansFound++;
+        if (mode == Mode.DELETE) {
+            documentStore.deleteQuarantined(key);
+            counters.bytesReclaimed += moved.getSize();
+        } else {
+            counters.quarantinedBytes += moved.getSize();
+        }
+    }
+
+    private void reclaimTemporaryFiles(Counters counters) throws IOException {
+        Duration tempGrace = gracePeriod.compareTo(uploadSessionTimeout) > 0 ? gracePeriod : uploadSessionTimeout;
+        Instant limit = Instant.now().minus(tempGrace);
+        for (StoredFile file : documentStore.listTemporary()) {
+            if (file.getLastModified().isBefore(limit) && documentStore.deleteTemporary(file.getKey())) {
+                counters.temporaryFilesDeleted++;
+                counters.bytesReclaimed += file.getSize();
+            }
+        }
+    }
+
+    private void purgeQuarantine(Counters counters) throws IOException {
+        Instant limit = Instant.now().minus(quarantineRetention);
+        for (StoredFile file : documentStore.listQuarantined()) {
+            if (file.getLastModified().isBefore(limit) && documentStore.deleteQuarantined(file.getKey())) {
+                counters.bytesReclaimed += file.getSize();
+            }
+        }
+    }
+
+    /**
+     * Clés encore utilisées par un document ou par un contenu partagé
+     */
+    private Set<String> referencedKeys(Collection<String> keys) {
+        Set<String> referenced = new HashSet<>(documentRepository.findFilePathsIn(keys));
+        referenced.addAll(documentRepository.findSignedFilePathsIn(keys));
+        List<String> blobHashes = new ArrayList<>();
+        for (String key : keys) {
+            if (BLOB_KEY.matcher(key).matches()) {
+                blobHashes.add(key.substring(0, 64));
+            }
+        }
+        if (!blobHashes.isEmpty()) {
+            // A row at zero references is a purge that failed after commit: its file is garbage
+            storedBlobRepository.findAllById(blobHashes).stream()
+                .filter(blob -> blob.getRefCount() > 0)
+                .forEach(blob -> referenced.add(blobStorageService.blobKey(blob.getSha256())));
+        }
+        return referenced;
+    }
+
+    private void throttle(long filesScanned, long startNanos) throws InterruptedException {
+        if (maxFilesPerSecond <= 0) {
+            return;
+        }
+        long expectedNanos = filesScanned * 1_000_000_000L / maxFilesPerSecond;
+        long aheadNanos = expectedNanos - (System.nanoTime() - startNanos);
+        if (aheadNanos > 0) {
+            Thread.sleep(aheadNanos / 1_000_000, (int) (aheadNanos % 1_000_000));
+        }
+    }
+
+    private int readCheckpoint(int shardCount) {
+        try {
+            int shard = Integer.parseInt(Files.readString(Paths.get(checkpointFile), StandardCharsets.UTF_8).trim());
+            return shard >= 0 && shard < shardCount ? shard : 0;
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Invalid storage reclaimer checkpoint, starting over: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private void writeCheckpoint(int shard) throws IOException {
+        Path path = Paths.get(checkpointFile);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.writeString(path, Integer.toString(shard), StandardCharsets.UTF_8);
+    }
+
+    private static final class Counters {
+        long filesScanned;
+        long orphansFound;
+        long quarantinedBytes;
+        long temporaryFilesDeleted;
+        long bytesReclaimed;
+    }
+}
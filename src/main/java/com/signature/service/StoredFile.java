@@ -0,0 +1,25 @@
+package com.signature.service;
+
+import java.time.Instant;
+
+/**
+ * Fichier présent dans le {@link DocumentStore}, tel que vu lors d'un parcours
+ */
+public class StoredFile {
+
+    private final String key;
+    private final long size;
+    private final Instant lastModified;
+
+    public StoredFile(String key, long size, Instant lastModified) {
+        this.key = key;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    public String getKey() { return key; }
+
+    public long getSize() { return size; }
+
+    public Instant getLastModified() { return lastModified; }
+}
@@ -0,0 +1,81 @@
+package com.signature.service;
+
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureInterface;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Signature PDFBox en mode "empreinte seule".
+ * Les plages d'octets fournies par PDFBox sont hachées au fil de l'eau (SHA-256 ou SHA-512 selon la clé),
+ * puis la signature CMS détachée est construite à partir de l'empreinte précalculée.
+ * La mémoire consommée par signature est donc constante, quelle que soit la taille du PDF.
+ */
+public class StreamingSignature implements SignatureInterface {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final SignerContext signerContext;
+    private final int reservedSize;
+
+    public StreamingSignature(SignerContext signerContext) {
+        this(signerContext, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param reservedSize taille réservée dans le champ /Contents ; une signature plus grande
+     *                     lève {@link SignatureSizeExceededException}
+     */
+    public StreamingSignature(SignerContext signerContext, int reservedSize) {
+        this.signerContext = signerContext;
+        this.reservedSize = reservedSize;
+    }
+
+    @Override
+    public byte[] sign(InputStream content) throws IOException {
+        byte[] cms;
+        try {
+            cms = signerContext.signDigest(digest(content, signerContext.getAlgorithm().getDigestAlgorithm()));
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Error creating signature", e);
+        }
+        if (cms.length > reservedSize) {
+            throw new SignatureSizeExceededException(cms.length, reservedSize);
+        }
+        return cms;
+    }
+
+    /**
+     * Calcule l'empreinte du flux avec un tampon de taille fixe
+     */
+    public static byte[] digest(InputStream content, String algorithm) throws IOException, NoSuchAlgorithmException {
+        MessageDigest messageDigest = MessageDigest.getInstance(algorithm);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+            messageDigest.update(buffer, 0, read);
+        }
+        return messageDigest.digest();
+    }
+
+    /**
+     * La signature CMS ne tient pas dans l'espace réservé du PDF
+     */
+    public static class SignatureSizeExceededException extends IOException {
+
+        private final int requiredSize;
+
+        public SignatureSizeExceededException(int requiredSize, int reservedSize) {
+            super("Signature needs " + requiredSize + " bytes but only " + reservedSize + " were reserved");
+            this.requiredSize = requiredSize;
+        }
+
+        public int getRequiredSize() {
+            return requiredSize;
+        }
+    }
+}
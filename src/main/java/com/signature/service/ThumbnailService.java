@@ -0,0 +1,290 @@
+package com.signature.service;
+
+import com.signature.entity.Document;
+import jakarta.annotation.PostConstruct;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Miniatures PNG des pages, rendues par PDFBox sur un pool borné.
+ * Les images sont conservées dans un cache disque LRU de taille bornée, indexé par l'empreinte
+ * du contenu, la page et la largeur : un contenu ne change jamais sous une même empreinte.
+ * Plusieurs demandes simultanées d'une même miniature partagent un seul rendu.
+ */
+@Service
+public class ThumbnailService {
+
+    @Autowired
+    private PackArchiveService packArchiveService;
+
+    @Autowired
+    private PdfMemoryGovernor pdfMemoryGovernor;
+
+    @Autowired
+    private ThreadPoolTaskExecutor thumbnailExecutor;
+
+    @Value("${signature.thumbnails.cache-path:${signature.storage.path}/thumbnails}")
+    private String cachePath;
+
+    @Value("${signature.thumbnails.cache-max-size:512MB}")
+    private DataSize cacheMaxSize;
+
+    @Value("${signature.thumbnails.width:120}")
+    private int defaultWidth;
+
+    @Value("${signature.thumbnails.max-width:1200}")
+    private int maxWidth;
+
+    @Value("${signature.thumbnails.max-height:2400}")
+    private int maxHeight;
+
+    @Value("${signature.thumbnails.render-timeout:30s}")
+    private Duration renderTimeout;
+
+    private Path cacheDir;
+
+    // Access-ordered: iteration starts with the least recently used thumbnail
+    private final LinkedHashMap<String, Long> cachedSizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    private final Map<String, CompletableFuture<Path>> rendering = new HashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        cacheDir = Paths.get(cachePath).toAbsolutePath().normalize();
+        Files.createDirectories(cacheDir);
+
+        // Rebuilds the LRU order from modification times, oldest first
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(cacheDir)) {
+            for (Path entry : entries) {
+                if (entry.getFileName().toString().endsWith(".tmp")) {
+                    Files.deleteIfExists(entry);
+                } else {
+                    files.add(entry);
+                }
+            }
+        }
+        files.sort(Comparator.comparing(file -> file.toFile().lastModified()));
+        synchronized (cachedSizes) {
+            for (Path file : files) {
+                long size = Files.size(file);
+                cachedSizes.put(file.getFileName().toString(), size);
+                cachedBytes += size;
+            }
+        }
+        evict();
+    }
+
+    public int getDefaultWidth() {
+        return defaultWidth;
+    }
+
+    /**
+     * Identifiant stable de la miniature, utilisable comme ETag
+     */
+    public String cacheKey(Document document, int page, int width) {
+        boolean signed = document.getIsSigned();
+        String hash = signed ? document.getSignedContentHash() : document.getContentHash();
+        String content = hash != null ? hash : "document-" + document.getId() + (signed ? "-signed" : "");
+        return content + "-p" + page + "-w" + clampWidth(width) + ".png";
+    }
+
+    /**
+     * Miniature de la page (à partir de 1) de la version courante du document, signée si elle existe
+     * @throws IllegalArgumentException si la page n'existe pas
+     * @throws TaskRejectedException si la file de rendu est pleine
+     */
+    public Path getThumbnail(Document document, int page, int width) throws Exception {
+        String key = cacheKey(document, page, width);
+        Path cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            return renderAsync(document, page, clampWidth(width), key).get(renderTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Prépare la miniature de la première page en arrière-plan ; ignoré si le pool est saturé
+     */
+    public void prerender(Document document) {
+        String key = cacheKey(document, 1, defaultWidth);
+        if (lookup(key) != null) {
+            return;
+        }
+        try {
+            renderAsync(document, 1, defaultWidth, key);
+        } catch (TaskRejectedException e) {
+            // Rendered on first request instead
+        }
+    }
+
+    private CompletableFuture<Path> renderAsync(Document document, int page, int width, String key) {
+        CompletableFuture<Path> future;
+        synchronized (rendering) {
+            future = rendering.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return render(document, page, width, key);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, thumbnailExecutor);
+            rendering.put(key, future);
+        }
+        CompletableFuture<Path> registered = future;
+        future.whenComplete((path, error) -> {
+            synchronized (rendering) {
+                rendering.remove(key, registered);
+            }
+        });
+        return future;
+    }
+
+    private Path render(Document document, int page, int width, String key) throws Exception {
+        String location = document.getIsSigned() ? document.getSignedFilePath() : document.getFilePath();
+        if (location == null) {
+            throw new RuntimeException("File not found");
+        }
+        Resource content = packArchiveService.resolve(location);
+        Path source = content.isFile() ? content.getFile().toPath() : null;
+        Path copy = null;
+        try {
+            if (source == null) {
+                // Archived content: PDFBox needs random access
+                copy = Files.createTempFile(cacheDir, "source-", ".tmp");
+                try (InputStream in = content.getInputStream()) {
+                    Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+                }
+                source = copy;
+            }
+
+            BufferedImage image;
+            try (PdfMemoryGovernor.Reservation reservation = pdfMemoryGovernor.reserve(Files.size(source));
+                 PDDocument pdf = Loader.loadPDF(source.toFile(), pdfMemoryGovernor.streamCache())) {
+                if (page < 1 || page > pdf.getNumberOfPages()) {
+                    throw new IllegalArgumentException("Page not found");
+                }
+                PDPage pdfPage = pdf.getPage(page - 1);
+                PDRectangle box = pdfPage.getCropBox();
+                boolean upright = pdfPage.getRotation() % 180 == 0;
+                float pageWidth = Math.max(1, upright ? box.getWidth() : box.getHeight());
+                float pageHeight = Math.max(1, upright ? box.getHeight() : box.getWidth());
+                // Very narrow pages are bounded by height too: the bitmap never exceeds max-width x max-height
+                float scale = Math.min(width / pageWidth, maxHeight / pageHeight);
+                image = new PDFRenderer(pdf).renderImage(page - 1, scale, ImageType.RGB);
+            }
+
+            Path temp = Files.createTempFile(cacheDir, "render-", ".tmp");
+            try {
+                ImageIO.write(image, "png", temp.toFile());
+                Path target = cacheDir.resolve(key);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                add(key, Files.size(target));
+                return target;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } finally {
+            if (copy != null) {
+                Files.deleteIfExists(copy);
+            }
+        }
+    }
+
+    private int clampWidth(int width) {
+        return Math.max(16, Math.min(width, maxWidth));
+    }
+
+    private Path lookup(String key) {
+        synchronized (cachedSizes) {
+            if (cachedSizes.get(key) == null) {
+                return null;
+            }
+        }
+        Path file = cacheDir.resolve(key);
+        if (Files.exists(file)) {
+            return file;
+        }
+        synchronized (cachedSizes) {
+            Long size = cachedSizes.remove(key);
+            if (size != null) {
+                cachedBytes -= size;
+            }
+        }
+        return null;
+    }
+
+    private void add(String key, long size) {
+        synchronized (cachedSizes) {
+            Long previous = cachedSizes.put(key, size);
+            cachedBytes += size - (previous != null ? previous : 0);
+        }
+        evict();
+    }
+
+    private void evict() {
+        List<String> evicted = new ArrayList<>();
+        synchronized (cachedSizes) {
+            Iterator<Map.Entry<String, Long>> eldest = cachedSizes.entrySet().iterator();
+            while (cachedBytes > cacheMaxSize.toBytes() && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                cachedBytes -= entry.getValue();
+                evicted.add(entry.getKey());
+                eldest.remove();
+            }
+        }
+        for (String key : evicted) {
+            try {
+                Files.deleteIfExists(cacheDir.resolve(key));
+            } catch (IOException e) {
+                System.err.println("Error evicting thumbnail " + key + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.signature.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Envoi d'un fichier en plusieurs morceaux, conservé en mémoire jusqu'à sa validation.
+ * Les octets reçus sont écrits dans un fichier temporaire du {@link DocumentStore}
+ * et hachés au fil de l'eau : {@link #getOffset()} indique où reprendre après une coupure.
+ */
+public class UploadSession {
+
+    private final String id = UUID.randomUUID().toString();
+    private final String fileName;
+    private final String contentType;
+    private final long size;
+    private final Long ownerId;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile long offset;
+    private volatile LocalDateTime lastActivityAt = createdAt;
+
+    @JsonIgnore
+    private final Path tempFile;
+
+    @JsonIgnore
+    private final MessageDigest digest;
+
+    @JsonIgnore
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public UploadSession(String fileName, String contentType, long size, Long ownerId, Path tempFile, MessageDigest digest) {
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+        this.ownerId = ownerId;
+        this.tempFile = tempFile;
+        this.digest = digest;
+    }
+
+    public String getId() { return id; }
+
+    public String getFileName() { return fileName; }
+
+    public String getContentType() { return contentType; }
+
+    public long getSize() { return size; }
+
+    @JsonIgnore
+    public Long getOwnerId() { return ownerId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    /**
+     * Nombre d'octets reçus, soit la position du prochain morceau attendu
+     */
+    public long getOffset() { return offset; }
+
+    public boolean isComplete() {
+        return offset == size;
+    }
+
+    public LocalDateTime getLastActivityAt() { return lastActivityAt; }
+
+    @JsonIgnore
+    Path getTempFile() { return tempFile; }
+
+    @JsonIgnore
+    MessageDigest getDigest() { return digest; }
+
+    @JsonIgnore
+    ReentrantLock getLock() { return lock; }
+
+    void advance(long bytes) {
+        this.offset += bytes;
+        this.lastActivityAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,241 @@
+package com.signature.service;
+
+import com.signature.entity.Document;
+import com.signature.entity.StoredBlob;
+import com.signature.entity.User;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Envois reprenables : une session est créée avec la taille du fichier, les morceaux sont écrits
+ * dans l'ordre directement sur disque, puis la validation crée le document comme un envoi classique.
+ * Le corps des requêtes est lu en flux, sans passer par la limite ni le tampon multipart.
+ * Les sessions ne vivent qu'en mémoire, en nombre limité par utilisateur et au total ;
+ * les fichiers temporaires laissés par un redémarrage sont supprimés au démarrage.
+ */
+@Service
+public class UploadSessionService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    @Autowired
+    private BlobStorageService blobStorageService;
+
+    @Autowired
+    private SignatureService signatureService;
+
+    @Value("${signature.upload.max-size:2GB}")
+    private DataSize maxSize;
+
+    @Value("${signature.upload.session-timeout:24h}")
+    private Duration sessionTimeout;
+
+    @Value("${signature.upload.max-sessions-per-user:10}")
+    private int maxSessionsPerUser;
+
+    @Value("${signature.upload.max-sessions:1000}")
+    private int maxSessions;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Supprime les fichiers temporaires restés sur disque : les sessions qui les écrivaient,
+     * comme les écritures en cours, n'ont pas survécu à l'arrêt de l'application
+     */
+    @PostConstruct
+    public void deleteOrphanedTemporaryFiles() {
+        try {
+            int deleted = 0;
+            for (StoredFile file : documentStore.listTemporary()) {
+                if (documentStore.deleteTemporary(file.getKey())) {
+                    deleted++;
+                }
+            }
+            if (deleted > 0) {
+                System.out.println("Deleted " + deleted + " temporary files left by interrupted uploads");
+            }
+        } catch (IOException e) {
+            // Left to the storage reclaimer once they are older than the session timeout
+            System.err.println("Error deleting orphaned temporary files: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Récupère l'utilisateur actuellement connecté
+     */
+    private User getCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getName())) {
+            return (User) auth.getPrincipal();
+        }
+        return null;
+    }
+
+    /**
+     * Ouvre une session pour un fichier de la taille donnée
+     * @throws IllegalStateException si l'utilisateur ou le serveur a déjà trop d'envois en cours
+     */
+    public UploadSession create(String fileName, String contentType, long size) throws Exception {
+        purgeExpiredSessions();
+        if (size <= 0 || size > maxSize.toBytes()) {
+            throw new IllegalArgumentException("File size must be between 1 and " + maxSize.toBytes() + " bytes");
+        }
+
+        User currentUser = getCurrentUser();
+        Long ownerId = currentUser != null ? currentUser.getId() : null;
+        // Count and insert together, so concurrent creations cannot overshoot the limits
+        synchronized (sessions) {
+            if (sessions.size() >= maxSessions) {
+                throw new IllegalStateException("Too many uploads in progress, please retry later");
+            }
+            long owned = sessions.values().stream().filter(s -> Objects.equals(s.getOwnerId(), ownerId)).count();
+            if (owned >= maxSessionsPerUser) {
+                throw new IllegalStateException("At most " + maxSessionsPerUser + " uploads can be in progress");
+            }
+            UploadSession session = new UploadSession(fileName, contentType, size, ownerId,
+                documentStore.createTempFile(), MessageDigest.getInstance("SHA-256"));
+            sessions.put(session.getId(), session);
+            return session;
+        }
+    }
+
+    /**
+     * Récupère une session si elle appartient à l'utilisateur connecté
+     */
+    public Optional<UploadSession> getSession(String sessionId) {
+        UploadSession session = sessions.get(sessionId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        User currentUser = getCurrentUser();
+        if (session.getOwnerId() != null && (currentUser == null || !session.getOwnerId().equals(currentUser.getId()))) {
+            return Optional.empty();
+        }
+        return Optional.of(session);
+    }
+
+    /**
+     * Écrit un morceau commençant à {@code start}, qui doit être la position courante de la session.
+     * Si la connexion est coupée en cours de route, les octets déjà reçus restent acquis.
+     * @throws IllegalStateException si le morceau n'est pas à la position attendue
+     *                               ou si un autre morceau est en cours d'écriture
+     */
+    public UploadSession writeChunk(UploadSession session, long start, long length, InputStream content) throws IOException {
+        if (!session.getLock().tryLock()) {
+            throw new IllegalStateException("Another chunk is being written");
+        }
+        try {
+            if (!sessions.containsKey(session.getId())) {
+                throw new IllegalStateException("Upload session is closed");
+            }
+            if (start != session.getOffset()) {
+                throw new IllegalStateException("Expected chunk at offset " + session.getOffset());
+            }
+            if (length <= 0 || start + length > session.getSize()) {
+                throw new IllegalArgumentException("Chunk exceeds the declared file size");
+            }
+
+            try (FileChannel channel = FileChannel.open(session.getTempFile(), StandardOpenOption.WRITE)) {
+                channel.position(start);
+                byte[] buffer = new byte[BUFFER_SIZE];
+                long remaining = length;
+                try {
+                    while (remaining > 0) {
+                        int read = content.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                        if (read == -1) {
+                            break;
+                        }
+                        ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                        while (bytes.hasRemaining()) {
+                            channel.write(bytes);
+                        }
+                        // Hashed only once on disk, so the digest always matches the counted bytes
+                        session.getDigest().update(buffer, 0, read);
+                        session.advance(read);
+                        remaining -= read;
+                    }
+                } finally {
+                    // Drops a partially written buffer after a write failure
+                    channel.truncate(session.getOffset());
+                }
+            }
+            return session;
+        } finally {
+            session.getLock().unlock();
+        }
+    }
+
+    /**
+     * Valide une session complète : le fichier rejoint le stockage partagé et le document est créé
+     */
+    public Document commit(UploadSession session) throws IOException {
+        if (!session.getLock().tryLock()) {
+            throw new IllegalStateException("Another chunk is being written");
+        }
+        try {
+            if (!session.isComplete()) {
+                throw new IllegalStateException("Upload incomplete: " + session.getOffset() + " of "
+                    + session.getSize() + " bytes received");
+            }
+            if (sessions.remove(session.getId()) == null) {
+                throw new IllegalStateException("Upload session is closed");
+            }
+            try {
+                String sha256 = HexFormat.of().formatHex(session.getDigest().digest());
+                StoredBlob blob = blobStorageService.storeFile(session.getTempFile(), sha256, session.getSize());
+                return signatureService.createDocument(session.getFileName(), session.getContentType(), blob);
+            } finally {
+                Files.deleteIfExists(session.getTempFile());
+            }
+        } finally {
+            session.getLock().unlock();
+        }
+    }
+
+    public void abort(UploadSession session) throws IOException {
+        if (sessions.remove(session.getId()) != null) {
+            session.getLock().lock();
+            try {
+                Files.deleteIfExists(session.getTempFile());
+            } finally {
+                session.getLock().unlock();
+            }
+        }
+    }
+
+    private void purgeExpiredSessions() {
+        LocalDateTime limit = LocalDateTime.now().minus(sessionTimeout);
+        for (UploadSession session : sessions.values()) {
+            if (session.getLastActivityAt().isBefore(limit) && !session.getLock().isLocked()) {
+                try {
+                    abort(session);
+                } catch (IOException e) {
+                    System.err.println("Error deleting expired upload " + session.getId() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+-- Schema as generated by Hibernate (ddl-auto: update) before versioned migrations were introduced.
+-- Databases created that way are baselined at this version and start at V2.
+
+CREATE TABLE users (
+    id          BIGSERIAL    NOT NULL,
+    username    VARCHAR(50)  NOT NULL UNIQUE,
+    email       VARCHAR(255) NOT NULL UNIQUE,
+    password    VARCHAR(255) NOT NULL,
+    first_name  VARCHAR(255) NOT NULL,
+    last_name   VARCHAR(255) NOT NULL,
+    role        VARCHAR(255) NOT NULL CHECK (role IN ('USER', 'ADMIN')),
+    enabled     BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE documents (
+    id                  BIGSERIAL    NOT NULL,
+    original_name       VARCHAR(255) NOT NULL,
+    file_name           VARCHAR(255) NOT NULL,
+    file_path           VARCHAR(255) NOT NULL,
+    file_size           BIGINT       NOT NULL,
+    content_type        VARCHAR(255) NOT NULL,
+    is_signed           BOOLEAN      NOT NULL,
+    signed_file_path    VARCHAR(255),
+    signed_at           TIMESTAMP(6),
+    uploaded_at         TIMESTAMP(6) NOT NULL,
+    signer_name         VARCHAR(255),
+    certificate_subject VARCHAR(255),
+    signature_algorithm VARCHAR(255),
+    user_id             BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_documents_user FOREIGN KEY (user_id) REFERENCES users
+);
@@ -0,0 +1,26 @@
+-- Content hashes, shared blobs and pack files.
+-- IF NOT EXISTS: a development schema updated by ddl-auto may already contain some of them.
+
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS signed_content_hash VARCHAR(64);
+
+-- One row per distinct content, shared by every document with that SHA-256
+CREATE TABLE IF NOT EXISTS stored_blobs (
+    sha256      VARCHAR(64)  NOT NULL,
+    size        BIGINT       NOT NULL,
+    ref_count   INTEGER      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (sha256)
+);
+
+-- Location of archived signed files inside the append-only pack files
+CREATE TABLE IF NOT EXISTS pack_entries (
+    document_id BIGINT       NOT NULL,
+    pack_name   VARCHAR(64)  NOT NULL,
+    pack_offset BIGINT       NOT NULL,
+    length      BIGINT       NOT NULL,
+    sha256      VARCHAR(64),
+    archived_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (document_id)
+);
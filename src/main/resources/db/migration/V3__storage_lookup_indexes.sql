@@ -0,0 +1,7 @@
+-- Reverse lookups of the storage reclaimer and the migration: which document uses a stored file.
+-- Built concurrently so that uploads and signatures are not blocked on large tables
+-- (see the .conf file next to this script).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_documents_file_path ON documents (file_path);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_documents_signed_file_path ON documents (signed_file_path);
@@ -0,0 +1,20 @@
+-- Per-user access paths of DocumentRepository: equality on user_id, then the keyset sort order.
+-- Built concurrently so that uploads and signatures are not blocked on large tables
+-- (see the .conf file next to this script). Dropping first also replaces the plain
+-- indexes of the same names that an earlier ddl-auto schema may contain.
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_documents_user_uploaded;
+DROP INDEX CONCURRENTLY IF EXISTS idx_documents_user_signed;
+DROP INDEX CONCURRENTLY IF EXISTS idx_documents_user_unsigned;
+
+-- All documents newest first, including is_signed so that the per-user counters are an index-only scan
+CREATE INDEX CONCURRENTLY idx_documents_user_uploaded
+    ON documents (user_id, uploaded_at DESC, id DESC) INCLUDE (is_signed);
+
+-- Signed documents by signature date (signed list and history page)
+CREATE INDEX CONCURRENTLY idx_documents_user_signed
+    ON documents (user_id, signed_at DESC, id DESC) WHERE is_signed;
+
+-- Documents waiting for a signature, newest first
+CREATE INDEX CONCURRENTLY idx_documents_user_unsigned
+    ON documents (user_id, uploaded_at DESC, id DESC) WHERE NOT is_signed;
@@ -0,0 +1,16 @@
+-- Substring search (GET /api/documents/search): trigram GIN indexes let
+-- LOWER(column) LIKE '%term%' find candidate rows without reading the whole table.
+-- pg_trgm is a trusted extension: the database owner can create it (PostgreSQL 13+).
+-- It is pinned to public and its operator classes are qualified, so the indexes resolve
+-- whatever schema Flyway migrates and wherever the search path points.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_documents_original_name_trgm
+    ON documents USING gin (LOWER(original_name) public.gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_documents_signer_name_trgm
+    ON documents USING gin (LOWER(signer_name) public.gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_documents_certificate_subject_trgm
+    ON documents USING gin (LOWER(certificate_subject) public.gin_trgm_ops);
@@ -0,0 +1,49 @@
+package com.signature;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Les endpoints d'administration ne sont accessibles qu'aux administrateurs
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AdminEndpointSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void testStorageEndpoints_forbiddenToUsers() throws Exception {
+        mockMvc.perform(get("/api/storage/reclaimer"))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/storage/reclaimer/run"))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void testSigningKeyEndpoints_forbiddenToUsers() throws Exception {
+        mockMvc.perform(get("/api/signing-keys"))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/documents/test-certificate"))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testStorageReport_allowedToAdmins() throws Exception {
+        // Aucun passage encore effectué
+        mockMvc.perform(get("/api/storage/reclaimer"))
+            .andExpect(status().isNoContent());
+    }
+}
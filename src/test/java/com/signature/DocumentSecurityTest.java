@@ -1,9 +1,11 @@
 package com.signature;
 
+import com.signature.dto.DocumentSummary;
 import com.signature.entity.Document;
 import com.signature.entity.User;
 import com.signature.repository.DocumentRepository;
 import com.signature.service.DocumentService;
+import com.signature.service.DocumentStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -12,6 +14,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.List;
@@ -19,6 +22,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -27,6 +31,9 @@ public class DocumentSecurityTest {
     @Mock
     private DocumentRepository documentRepository;
 
+    @Mock
+    private DocumentStatsService documentStatsService;
+
     @InjectMocks
     private DocumentService documentService;
 
@@ -63,18 +70,28 @@ public class DocumentSecurityTest {
 
         // Configuration des mocks
         // Par défaut, tous les documents sont retournés sans filtrage
-        when(documentRepository.findAllOrderByUploadedAtDesc())
-                .thenReturn(Arrays.asList(doc1User1, doc2User1, doc1User2));
+        when(documentRepository.findPage(any(), any(), any()))
+                .thenReturn(Arrays.asList(summary(doc1User1), summary(doc2User1), summary(doc1User2)));
         
         // Avec filtrage utilisateur
-        when(documentRepository.findAllByUserOrderByUploadedAtDesc(user1))
-                .thenReturn(Arrays.asList(doc1User1, doc2User1));
-        when(documentRepository.findAllByUserOrderByUploadedAtDesc(user2))
-                .thenReturn(List.of(doc1User2));
-
-        when(documentRepository.findById(1L)).thenReturn(Optional.of(doc1User1));
-        when(documentRepository.findById(2L)).thenReturn(Optional.of(doc2User1));
-        when(documentRepository.findById(3L)).thenReturn(Optional.of(doc1User2));
+        when(documentRepository.findPageByUser(eq(user1), any(), any(), any()))
+                .thenReturn(Arrays.asList(summary(doc1User1), summary(doc2User1)));
+        when(documentRepository.findPageByUser(eq(user2), any(), any(), any()))
+                .thenReturn(List.of(summary(doc1User2)));
+        ReflectionTestUtils.setField(documentService, "defaultPageSize", 50);
+        ReflectionTestUtils.setField(documentService, "maxPageSize", 200);
+
+        // Recherche limitée au propriétaire : un document d'un autre utilisateur n'est pas trouvé
+        when(documentRepository.findByIdAndUser(1L, user1)).thenReturn(Optional.of(doc1User1));
+        when(documentRepository.findByIdAndUser(2L, user1)).thenReturn(Optional.of(doc2User1));
+        when(documentRepository.findByIdAndUser(3L, user1)).thenReturn(Optional.empty());
+        when(documentRepository.findByIdAndUser(3L, user2)).thenReturn(Optional.of(doc1User2));
+    }
+
+    private static DocumentSummary summary(Document document) {
+        return new DocumentSummary(document.getId(), document.getOriginalName(), document.getFileSize(),
+                document.getContentType(), document.getIsSigned(), document.getUploadedAt(), document.getSignedAt(),
+                document.getSignerName(), document.getCertificateSubject(), document.getSignatureAlgorithm());
     }
 
     private void authenticateAs(User user) {
@@ -92,13 +109,15 @@ public class DocumentSecurityTest {
         authenticateAs(user1);
 
         // Exécution du test
-        List<Document> result = documentService.getAllDocuments();
+        List<Long> result = documentService.getAllDocuments(null, null).getItems().stream()
+                .map(DocumentSummary::getId)
+                .toList();
 
         // Vérifications
         assertEquals(2, result.size());
-        assertTrue(result.contains(doc1User1));
-        assertTrue(result.contains(doc2User1));
-        assertFalse(result.contains(doc1User2));
+        assertTrue(result.contains(doc1User1.getId()));
+        assertTrue(result.contains(doc2User1.getId()));
+        assertFalse(result.contains(doc1User2.getId()));
     }
 
     @Test
@@ -124,6 +143,7 @@ public class DocumentSecurityTest {
 
         // Vérifications
         assertFalse(result.isPresent());
+        verify(documentRepository, never()).findById(any());
     }
 
     @Test
@@ -158,7 +178,7 @@ public class DocumentSecurityTest {
         clearAuthentication();
 
         // Exécution du test
-        List<Document> result = documentService.getAllDocuments();
+        List<DocumentSummary> result = documentService.getAllDocuments(null, null).getItems();
 
         // Vérifications - en mode non-authentifié, comportement de fallback
         assertEquals(3, result.size());
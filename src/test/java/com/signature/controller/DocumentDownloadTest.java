@@ -0,0 +1,203 @@
+package com.signature.controller;
+
+import com.signature.entity.Document;
+import com.signature.service.DocumentExportService;
+import com.signature.service.DocumentService;
+import com.signature.service.SignatureService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DocumentDownloadTest {
+
+    private static final String CONTENT_HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private DocumentService documentService;
+
+    @Mock
+    private SignatureService signatureService;
+
+    @Mock
+    private DocumentExportService documentExportService;
+
+    @InjectMocks
+    private DocumentController documentController;
+
+    private MockMvc mockMvc;
+    private byte[] content;
+    @Test
+    public void testExport_streamsZipWithEntityHeaders() throws Exception {
+        byte[] zip = "PK\u0005\u0006".getBytes(StandardCharsets.ISO_8859_1);
+        when(documentExportService.writeZip(any(), any())).thenAnswer(inv -> {
+            inv.getArgument(1, OutputStream.class).write(zip);
+            return 0;
+        });
+
+        // Le corps est écrit de façon asynchrone, après le retour du contrôleur
+        MvcResult result = mockMvc.perform(post("/api/documents/export")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/zip"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"documents-export.zip\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+            .andExpect(content().bytes(zip));
+    }
+
+    @Test
+    public void testExport_rejectsInvertedDateRange() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/documents/export")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"uploadedFrom\": \"2024-02-01T00:00:00\", \"uploadedTo\": \"2024-01-01T00:00:00\"}"))
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("uploadedFrom must be before uploadedTo"));
+        verifyNoInteractions(documentExportService);
+    }
+
+    private String lastModified;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        content = new byte[10_000];
+        Arrays.fill(content, (byte) 'a');
+        content[1000] = 'X';
+        Path file = Files.write(tempDir.resolve("document.pdf"), content);
+
+        Document document = new Document("contrat.pdf", "uuid_contrat.pdf", file.toString(), (long) content.length, "application/pdf");
+        document.setId(1L);
+        document.setContentHash(CONTENT_HASH);
+        lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+            document.getUploadedAt().atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC));
+        lenient().when(documentService.getDocumentById(1L)).thenReturn(Optional.of(document));
+        lenient().when(signatureService.getDocumentContent(eq(document), eq(false))).thenReturn(new FileSystemResource(file));
+
+        ReflectionTestUtils.setField(documentController, "downloadMaxAge", Duration.ofDays(365));
+        mockMvc = MockMvcBuilders.standaloneSetup(documentController).build();
+    }
+
+    @Test
+    public void testDownload_fullFileAdvertisesRanges() throws Exception {
+        mockMvc.perform(get("/api/documents/1/download"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, String.valueOf(content.length)))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + CONTENT_HASH + "\""))
+            .andExpect(header().string(HttpHeaders.LAST_MODIFIED, lastModified))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, private, immutable"))
+            .andExpect(content().bytes(content));
+    }
+
+    @Test
+    public void testDownload_sharedCacheIsOptIn() throws Exception {
+        ReflectionTestUtils.setField(documentController, "downloadSharedCache", true);
+
+        mockMvc.perform(get("/api/documents/1/download"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, s-maxage=0, immutable"));
+    }
+
+    @Test
+    public void testGetDocument_metadataOmitsStorageLocations() throws Exception {
+        // Les emplacements changent lors des migrations sans changer l'empreinte qui sert d'ETag
+        mockMvc.perform(get("/api/documents/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + CONTENT_HASH + "\""))
+            .andExpect(jsonPath("$.originalName").value("contrat.pdf"))
+            .andExpect(jsonPath("$.filePath").doesNotExist())
+            .andExpect(jsonPath("$.signedFilePath").doesNotExist());
+    }
+
+    @Test
+    public void testDownload_conditionalRequestDoesNotOpenFile() throws Exception {
+        mockMvc.perform(get("/api/documents/1/download").header(HttpHeaders.IF_NONE_MATCH, "\"" + CONTENT_HASH + "\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/api/documents/1/download").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/documents/1").header(HttpHeaders.IF_NONE_MATCH, "\"" + CONTENT_HASH + "\""))
+            .andExpect(status().isNotModified());
+
+        verify(signatureService, never()).getDocumentContent(any(), anyBoolean());
+    }
+
+    @Test
+    public void testDownload_rangeReturnsPartialContent() throws Exception {
+        mockMvc.perform(get("/api/documents/1/download").header(HttpHeaders.RANGE, "bytes=1000-1009"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 1000-1009/10000"))
+            .andExpect(content().bytes(Arrays.copyOfRange(content, 1000, 1010)));
+    }
+
+    @Test
+    public void testDownload_ifRangeControlsPartialResponse() throws Exception {
+        // Validateur à jour : la plage est servie
+        mockMvc.perform(get("/api/documents/1/download")
+                .header(HttpHeaders.RANGE, "bytes=0-99")
+                .header(HttpHeaders.IF_RANGE, lastModified))
+            .andExpect(status().isPartialContent());
+
+        mockMvc.perform(get("/api/documents/1/download")
+                .header(HttpHeaders.RANGE, "bytes=0-99")
+                .header(HttpHeaders.IF_RANGE, "\"" + CONTENT_HASH + "\""))
+            .andExpect(status().isPartialContent());
+
+        // Validateurs périmés : le fichier entier est renvoyé
+        mockMvc.perform(get("/api/documents/1/download")
+                .header(HttpHeaders.RANGE, "bytes=0-99")
+                .header(HttpHeaders.IF_RANGE, "Mon, 01 Jan 2001 00:00:00 GMT"))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(content));
+        mockMvc.perform(get("/api/documents/1/download")
+                .header(HttpHeaders.RANGE, "bytes=0-99")
+                .header(HttpHeaders.IF_RANGE, "\"autre\""))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testDownload_unsatisfiableRange() throws Exception {
+        mockMvc.perform(get("/api/documents/1/download").header(HttpHeaders.RANGE, "bytes=20000-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10000"));
+    }
+}
@@ -0,0 +1,171 @@
+package com.signature.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Vérifie sur un PostgreSQL local que les requêtes par utilisateur et la recherche de {@link DocumentRepository}
+ * utilisent les index des migrations au lieu d'un parcours séquentiel.
+ * Les migrations sont appliquées dans un schéma temporaire ; le test est ignoré sans base disponible
+ * (connexion : propriétés test.db.url, test.db.user, test.db.password).
+ */
+public class DocumentQueryPlanTest {
+
+    private static final String SCHEMA = "plan_test_" + System.nanoTime();
+    private static final String FIRST_PAGE = "TIMESTAMP '9999-12-31 23:59:59'";
+    private static final String COLUMNS = "id, original_name, file_size, content_type, is_signed, uploaded_at, "
+        + "signed_at, signer_name, certificate_subject, signature_algorithm";
+
+    private static Connection connection;
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        try {
+            connection = DriverManager.getConnection(
+                System.getProperty("test.db.url", "jdbc:postgresql://localhost:5432/postgres"),
+                System.getProperty("test.db.user", "postgres"),
+                System.getProperty("test.db.password", "postgres"));
+        } catch (SQLException e) {
+            assumeTrue(false, "No local PostgreSQL: " + e.getMessage());
+        }
+        execute("CREATE SCHEMA " + SCHEMA);
+        // public stays on the path: pg_trgm lives there, possibly installed before this test
+        execute("SET search_path TO " + SCHEMA + ", public");
+        migrate("V1__baseline.sql");
+        migrate("V2__content_addressed_storage.sql");
+        migrate("V3__storage_lookup_indexes.sql");
+        migrate("V4__per_user_listing_indexes.sql");
+        migrate("V5__document_search_trigram.sql");
+
+        // 100 users with 500 documents each, every other one signed
+        execute("INSERT INTO users (username, email, password, first_name, last_name, role, enabled, created_at) "
+            + "SELECT 'user' || g, 'user' || g || '@example.com', 'password', 'User', 'Test', 'USER', true, now() "
+            + "FROM generate_series(1, 100) g");
+        execute("INSERT INTO documents (original_name, file_name, file_path, file_size, content_type, is_signed, "
+            + "signed_at, signer_name, uploaded_at, user_id) "
+            + "SELECT 'document-' || g || '.pdf', 'document-' || g || '.pdf', 'blob-' || g || '.pdf', 250000, "
+            + "'application/pdf', g % 2 = 0, CASE WHEN g % 2 = 0 THEN now() - g * INTERVAL '1 minute' END, "
+            + "CASE WHEN g % 2 = 0 THEN 'Signer ' || md5(g::text) END, "
+            + "now() - g * INTERVAL '1 minute', (SELECT min(id) FROM users) + g % 100 "
+            + "FROM generate_series(1, 50000) g");
+        execute("VACUUM ANALYZE documents");
+    }
+
+    @AfterAll
+    public static void cleanup() throws Exception {
+        if (connection != null) {
+            execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testUserPages_useUploadedIndexWithoutSorting() throws Exception {
+        String plan = explain("SELECT " + COLUMNS + " FROM documents WHERE user_id = " + userId()
+            + " AND uploaded_at <= " + FIRST_PAGE + " AND (uploaded_at < " + FIRST_PAGE + " OR id < 9223372036854775807)"
+            + " ORDER BY uploaded_at DESC, id DESC LIMIT 51");
+        assertUsesIndex(plan, "idx_documents_user_uploaded");
+
+        // A page deep into the list starts at the cursor instead of skipping rows
+        plan = explain("SELECT " + COLUMNS + " FROM documents WHERE user_id = " + userId()
+            + " AND uploaded_at <= now() - INTERVAL '30000 minutes'"
+            + " AND (uploaded_at < now() - INTERVAL '30000 minutes' OR id < 20000)"
+            + " ORDER BY uploaded_at DESC, id DESC LIMIT 51");
+        assertUsesIndex(plan, "idx_documents_user_uploaded");
+    }
+
+    @Test
+    public void testSignedAndUnsignedPages_usePartialIndexes() throws Exception {
+        String plan = explain("SELECT " + COLUMNS + " FROM documents WHERE user_id = " + userId()
+            + " AND is_signed = true AND signed_at <= " + FIRST_PAGE
+            + " AND (signed_at < " + FIRST_PAGE + " OR id < 9223372036854775807)"
+            + " ORDER BY signed_at DESC, id DESC LIMIT 51");
+        assertUsesIndex(plan, "idx_documents_user_signed");
+
+        plan = explain("SELECT " + COLUMNS + " FROM documents WHERE user_id = " + userId()
+            + " AND is_signed = false AND uploaded_at <= " + FIRST_PAGE
+            + " AND (uploaded_at < " + FIRST_PAGE + " OR id < 9223372036854775807)"
+            + " ORDER BY uploaded_at DESC, id DESC LIMIT 51");
+        assertUsesIndex(plan, "idx_documents_user_unsigned");
+    }
+
+    @Test
+    public void testUserCounters_readOnlyTheIndex() throws Exception {
+        String plan = explain("SELECT count(id), sum(CASE WHEN is_signed = true THEN 1 ELSE 0 END) "
+            + "FROM documents WHERE user_id = " + userId());
+        assertUsesIndex(plan, "idx_documents_user_uploaded");
+        assertTrue(plan.contains("Index Only Scan"), plan);
+    }
+
+    @Test
+    public void testSearch_usesTrigramIndexes() throws Exception {
+        // Across all documents: a single user's rows are few enough for the user_id index
+        String plan = explain("SELECT d.id FROM documents d WHERE ("
+            + "LOWER(d.original_name) LIKE '%ent-4242%' OR LOWER(d.signer_name) LIKE '%ent-4242%' "
+            + "OR LOWER(d.certificate_subject) LIKE '%ent-4242%') "
+            + "ORDER BY GREATEST(word_similarity('ent-4242', LOWER(d.original_name)), "
+            + "word_similarity('ent-4242', LOWER(COALESCE(d.signer_name, ''))), "
+            + "word_similarity('ent-4242', LOWER(COALESCE(d.certificate_subject, '')))) DESC, d.id DESC LIMIT 51");
+        assertTrue(plan.contains("idx_documents_original_name_trgm"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    private static void assertUsesIndex(String plan, String index) {
+        assertTrue(plan.contains(index), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+        // Rows come out of the index in list order
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    private static long userId() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT min(id) + 42 FROM users")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static void migrate(String script) throws IOException, SQLException {
+        String sql;
+        try (InputStream in = DocumentQueryPlanTest.class.getResourceAsStream("/db/migration/" + script)) {
+            assertNotNull(in, script);
+            sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        // The migrations contain no semicolons other than statement terminators
+        for (String statement : sql.split(";")) {
+            if (!statement.replaceAll("(?m)^\\s*--.*$", "").isBlank()) {
+                execute(statement);
+            }
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
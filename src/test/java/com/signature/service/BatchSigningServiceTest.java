@@ -0,0 +1,83 @@
+package com.signature.service;
+
+import com.signature.dto.BatchSignResult;
+import com.signature.entity.Document;
+import com.signature.repository.DocumentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BatchSigningServiceTest {
+
+    private BatchSigningService batchSigningService;
+    private SignatureService signatureService;
+    private DocumentRepository documentRepository;
+    private DocumentStatsService documentStatsService;
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    public void setup() {
+        signatureService = mock(SignatureService.class);
+        documentRepository = mock(DocumentRepository.class);
+        documentStatsService = mock(DocumentStatsService.class);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+
+        batchSigningService = new BatchSigningService();
+        ReflectionTestUtils.setField(batchSigningService, "signatureService", signatureService);
+        ReflectionTestUtils.setField(batchSigningService, "documentRepository", documentRepository);
+        ReflectionTestUtils.setField(batchSigningService, "batchSigningExecutor", executor);
+        ReflectionTestUtils.setField(batchSigningService, "transactionTemplate", new TransactionTemplate(new NoOpTransactionManager()));
+        ReflectionTestUtils.setField(batchSigningService, "thumbnailService", mock(ThumbnailService.class));
+        ReflectionTestUtils.setField(batchSigningService, "documentStatsService", documentStatsService);
+        ReflectionTestUtils.setField(batchSigningService, "maxDocuments", 10);
+        ReflectionTestUtils.setField(batchSigningService, "saveBatchSize", 50);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testSignDocuments_documentClaimedMeanwhileIsNotOverwritten() throws Exception {
+        Document free = document(1L);
+        Document taken = document(2L);
+        when(documentRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(free, taken));
+        when(signatureService.applySignature(any(Document.class), eq("Alice"))).thenAnswer(inv -> {
+            Document document = inv.getArgument(0);
+            document.setSignedAt(LocalDateTime.now());
+            return document;
+        });
+        // Le document 2 a été signé (ou supprimé) par une autre requête pendant le lot
+        when(signatureService.recordSignature(free)).thenReturn(true);
+        when(signatureService.recordSignature(taken)).thenReturn(false);
+
+        List<BatchSignResult> results = batchSigningService.signDocuments(List.of(1L, 2L), "Alice");
+
+        assertEquals(BatchSignResult.Status.SIGNED, results.get(0).getStatus());
+        assertEquals(BatchSignResult.Status.FAILED, results.get(1).getStatus());
+        verify(documentRepository, never()).saveAll(any());
+        verify(signatureService, never()).discardSignature(free);
+        verify(signatureService).discardSignature(taken);
+        verify(documentStatsService).documentSigned(free);
+        verify(documentStatsService, never()).documentSigned(taken);
+    }
+
+    private Document document(Long id) {
+        Document document = new Document();
+        document.setId(id);
+        return document;
+    }
+}
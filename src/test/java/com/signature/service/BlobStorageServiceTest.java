@@ -0,0 +1,104 @@
+package com.signature.service;
+
+import com.signature.entity.StoredBlob;
+import com.signature.repository.StoredBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class BlobStorageServiceTest {
+
+    @TempDir
+    Path storageDir;
+
+    private final Map<String, StoredBlob> rows = new HashMap<>();
+    private BlobStorageService blobStorageService;
+    private FileSystemDocumentStore documentStore;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        StoredBlobRepository repository = mock(StoredBlobRepository.class);
+        when(repository.findForUpdate(anyString())).thenAnswer(inv -> Optional.ofNullable(rows.get(inv.getArgument(0, String.class))));
+        when(repository.save(any(StoredBlob.class))).thenAnswer(inv -> {
+            StoredBlob blob = inv.getArgument(0);
+            rows.put(blob.getSha256(), blob);
+            return blob;
+        });
+        doAnswer(inv -> rows.remove(inv.getArgument(0, StoredBlob.class).getSha256())).when(repository).delete(any(StoredBlob.class));
+
+        documentStore = new FileSystemDocumentStore();
+        ReflectionTestUtils.setField(documentStore, "storagePath", storageDir.toString());
+        documentStore.init();
+
+        blobStorageService = new BlobStorageService();
+        ReflectionTestUtils.setField(blobStorageService, "documentStore", documentStore);
+        ReflectionTestUtils.setField(blobStorageService, "storedBlobRepository", repository);
+        ReflectionTestUtils.setField(blobStorageService, "transactionTemplate", new TransactionTemplate(new NoOpTransactionManager()));
+    }
+
+    @Test
+    public void testStore_identicalContentIsStoredOnceAndReferenceCounted() throws Exception {
+        byte[] content = "%PDF-1.4 conditions générales".getBytes(StandardCharsets.UTF_8);
+
+        StoredBlob first = blobStorageService.store(new ByteArrayInputStream(content));
+        StoredBlob second = blobStorageService.store(new ByteArrayInputStream(content));
+
+        assertEquals(first.getSha256(), second.getSha256());
+        assertEquals(64, first.getSha256().length());
+        assertEquals(2, rows.get(first.getSha256()).getRefCount());
+        assertEquals(content.length, second.getSize());
+        Path blob = documentStore.getLocalPath(blobStorageService.blobKey(first.getSha256()));
+        assertArrayEquals(content, Files.readAllBytes(blob));
+        // Aucun fichier temporaire ne subsiste après la copie
+        try (var temps = Files.list(storageDir.resolve("tmp"))) {
+            assertEquals(0, temps.count());
+        }
+
+        // Le fichier survit tant qu'une référence existe
+        blobStorageService.release(first.getSha256());
+        assertTrue(Files.exists(blob));
+        blobStorageService.release(first.getSha256());
+        assertFalse(Files.exists(blob));
+        assertFalse(rows.containsKey(first.getSha256()));
+    }
+
+    @Test
+    public void testRelease_keepsFileWhenCallerTransactionRollsBack() throws Exception {
+        byte[] content = "%PDF-1.4 annexe".getBytes(StandardCharsets.UTF_8);
+        StoredBlob stored = blobStorageService.store(new ByteArrayInputStream(content));
+        Path blob = documentStore.getLocalPath(blobStorageService.blobKey(stored.getSha256()));
+
+        // Suppression annulée après le retrait de la dernière référence : le fichier doit rester
+        TransactionTemplate outer = new TransactionTemplate(new NoOpTransactionManager());
+        outer.executeWithoutResult(status -> {
+            blobStorageService.release(stored.getSha256());
+            assertTrue(Files.exists(blob));
+            status.setRollbackOnly();
+        });
+        assertTrue(Files.exists(blob));
+
+        // Validée : le fichier et la ligne disparaissent après le commit
+        outer.executeWithoutResult(status -> {
+            rows.get(stored.getSha256()).setRefCount(1);
+            blobStorageService.release(stored.getSha256());
+            assertTrue(Files.exists(blob));
+        });
+        assertFalse(Files.exists(blob));
+        assertFalse(rows.containsKey(stored.getSha256()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.signature.service;
+
+import com.signature.dto.ExportRequest;
+import com.signature.entity.Document;
+import com.signature.repository.DocumentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DocumentExportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testWriteZip_storesEachFileUncompressedPageByPage() throws Exception {
+        Files.writeString(tempDir.resolve("signed-1.pdf"), "%PDF-1.4 contrat signé");
+        Document signed = document(1L, "contrat.pdf", "signed-1.pdf");
+        Document missing = document(2L, "avenant.pdf", "signed-2.pdf");
+
+        DocumentRepository repository = mock(DocumentRepository.class);
+        when(repository.findForExport(any(), eq(true), any(), any(), eq("%martin%"), eq(0L), any(Pageable.class)))
+            .thenReturn(List.of(signed));
+        when(repository.findForExport(any(), eq(true), any(), any(), eq("%martin%"), eq(1L), any(Pageable.class)))
+            .thenReturn(List.of(missing));
+        when(repository.findForExport(any(), eq(true), any(), any(), eq("%martin%"), eq(2L), any(Pageable.class)))
+            .thenReturn(List.of());
+        PackArchiveService packArchiveService = mock(PackArchiveService.class);
+        when(packArchiveService.resolve(anyString())).thenAnswer(inv -> new FileSystemResource(tempDir.resolve(inv.getArgument(0, String.class))));
+
+        DocumentExportService exportService = new DocumentExportService();
+        ReflectionTestUtils.setField(exportService, "documentRepository", repository);
+        ReflectionTestUtils.setField(exportService, "packArchiveService", packArchiveService);
+        ReflectionTestUtils.setField(exportService, "pageSize", 1);
+
+        ExportRequest filter = new ExportRequest();
+        filter.setSigned(true);
+        filter.setSignerName(" Martin ");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(1, exportService.writeZip(filter, out));
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry = zip.getNextEntry();
+            assertEquals("1_contrat_signed.pdf", entry.getName());
+            assertEquals(ZipEntry.STORED, entry.getMethod());
+            assertEquals("%PDF-1.4 contrat signé", new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+
+            ZipEntry errors = zip.getNextEntry();
+            assertEquals("export-errors.txt", errors.getName());
+            assertTrue(new String(zip.readAllBytes(), StandardCharsets.UTF_8).contains("[2]"));
+            assertNull(zip.getNextEntry());
+        }
+    }
+
+    private static Document document(Long id, String originalName, String signedFilePath) {
+        Document document = new Document();
+        document.setId(id);
+        document.setOriginalName(originalName);
+        document.setIsSigned(true);
+        document.setSignedFilePath(signedFilePath);
+        document.setSignedAt(LocalDateTime.of(2024, 3, 15, 10, 0));
+        return document;
+    }
+}
@@ -0,0 +1,141 @@
+package com.signature.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.signature.entity.Document;
+import com.signature.entity.PackEntry;
+import com.signature.entity.StoredBlob;
+import com.signature.entity.User;
+import com.signature.repository.DocumentRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Compare une page de liste lue en entités (requête d'origine, vérification des modifications au flush
+ * et sérialisation JSON) et la même page lue en projection {@code DocumentSummary}.
+ * Les documents de test sont insérés dans une transaction annulée à la fin.
+ * Lancement : {@code java -cp <classpath de test> com.signature.service.DocumentListingBenchmark [url] [utilisateur] [mot de passe]}
+ */
+public class DocumentListingBenchmark {
+
+    private static final int DOCUMENTS = 5000;
+    private static final int PAGE_SIZE = 200;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "jdbc:postgresql://localhost:5432/postgres";
+        String username = args.length > 1 ? args[1] : "postgres";
+        String password = args.length > 2 ? args[2] : "postgres";
+
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+            .applySetting("hibernate.connection.url", url)
+            .applySetting("hibernate.connection.username", username)
+            .applySetting("hibernate.connection.password", password)
+            .applySetting("hibernate.physical_naming_strategy",
+                "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy")
+            .applySetting("hibernate.hbm2ddl.auto", "update")
+            .applySetting("hibernate.jdbc.batch_size", "50")
+            .build();
+        try (SessionFactory sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(Document.class)
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(StoredBlob.class)
+                .addAnnotatedClass(PackEntry.class)
+                .buildMetadata()
+                .buildSessionFactory();
+             Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                User user = seed(session);
+                String projection = repositoryQuery("findPageByUser");
+                // The query the listing used before the projection: whole entities, same page
+                String entities = "SELECT d " + projection.substring(projection.indexOf("FROM Document d"));
+
+                ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+                run("entities", session, objectMapper, entities, user);
+                run("projection", session, objectMapper, projection, user);
+            } finally {
+                transaction.rollback();
+            }
+        }
+    }
+
+    private static User seed(Session session) {
+        User user = new User("benchmark-" + System.nanoTime(), System.nanoTime() + "@benchmark.local",
+            "password", "Bench", "Mark");
+        session.persist(user);
+        LocalDateTime uploadedAt = LocalDateTime.now();
+        for (int i = 0; i < DOCUMENTS; i++) {
+            Document document = new Document("document-" + i + ".pdf", "document-" + i + ".pdf",
+                "blob-" + i + ".pdf", 250_000L + i, "application/pdf");
+            document.setUser(user);
+            document.setUploadedAt(uploadedAt.minusMinutes(i));
+            document.setContentHash(String.format("%064x", i));
+            if (i % 2 == 0) {
+                document.setIsSigned(true);
+                document.setSignedAt(uploadedAt.minusMinutes(i).plusSeconds(30));
+                document.setSignedFilePath("signed-" + i + ".pdf");
+                document.setSignerName("Martin");
+                document.setCertificateSubject("CN=Signature Service");
+                document.setSignatureAlgorithm("SHA256withRSA");
+            }
+            session.persist(document);
+            if (i % 50 == 49) {
+                session.flush();
+                session.clear();
+            }
+        }
+        session.flush();
+        session.clear();
+        return session.getReference(User.class, user.getId());
+    }
+
+    private static void run(String name, Session session, ObjectMapper objectMapper, String hql, User user) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            readPage(session, objectMapper, hql, user);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        int bytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes = readPage(session, objectMapper, hql, user);
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+        long allocated = (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / ITERATIONS;
+
+        System.out.printf("%-10s %8.2f ms/page %10d KB allocated/page %8d bytes JSON%n",
+            name, millis, allocated / 1024, bytes);
+    }
+
+    // One request: query, flush (dirty checking of managed entities), JSON, then the persistence context is discarded
+    private static int readPage(Session session, ObjectMapper objectMapper, String hql, User user) throws Exception {
+        List<?> rows = session.createQuery(hql, Object.class)
+            .setParameter("user", user)
+            .setParameter("at", DocumentCursor.START.getTimestamp())
+            .setParameter("id", DocumentCursor.START.getId())
+            .setMaxResults(PAGE_SIZE + 1)
+            .getResultList();
+        session.flush();
+        int bytes = objectMapper.writeValueAsBytes(rows).length;
+        session.clear();
+        return bytes;
+    }
+
+    private static String repositoryQuery(String method) throws NoSuchMethodException {
+        return DocumentRepository.class.getMethod(method, User.class, LocalDateTime.class, Long.class, Pageable.class)
+            .getAnnotation(Query.class).value();
+    }
+}
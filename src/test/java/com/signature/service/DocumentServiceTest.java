@@ -0,0 +1,87 @@
+package com.signature.service;
+
+import com.signature.dto.DocumentPage;
+import com.signature.dto.DocumentSummary;
+import com.signature.repository.DocumentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DocumentServiceTest {
+
+    @Test
+    public void testGetSignedDocuments_continuesAfterLastSignedDocument() {
+        LocalDateTime signedAt = LocalDateTime.of(2024, 3, 15, 10, 30, 0, 123456000);
+        DocumentSummary first = signedDocument(9L, signedAt.plusMinutes(5));
+        DocumentSummary second = signedDocument(7L, signedAt);
+        DocumentSummary extra = signedDocument(4L, signedAt);
+
+        DocumentRepository repository = mock(DocumentRepository.class);
+        when(repository.findSignedPage(eq(DocumentCursor.START.getTimestamp()), eq(Long.MAX_VALUE), any(Pageable.class)))
+            .thenReturn(List.of(first, second, extra));
+        when(repository.findSignedPage(eq(signedAt), eq(7L), any(Pageable.class)))
+            .thenReturn(List.of(extra));
+
+        DocumentService documentService = new DocumentService();
+        ReflectionTestUtils.setField(documentService, "documentRepository", repository);
+        ReflectionTestUtils.setField(documentService, "defaultPageSize", 50);
+        ReflectionTestUtils.setField(documentService, "maxPageSize", 2);
+
+        // Requested size is capped; the extra row only signals that another page exists
+        DocumentPage page = documentService.getSignedDocuments(null, 500);
+        assertEquals(List.of(first, second), page.getItems());
+        assertNotNull(page.getNextCursor());
+        verify(repository).findSignedPage(any(), any(), eq(PageRequest.of(0, 3)));
+
+        DocumentPage next = documentService.getSignedDocuments(page.getNextCursor(), 500);
+        assertEquals(List.of(extra), next.getItems());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    public void testGetAllDocuments_rejectsTamperedCursor() {
+        DocumentService documentService = new DocumentService();
+        ReflectionTestUtils.setField(documentService, "documentRepository", mock(DocumentRepository.class));
+
+        assertThrows(IllegalArgumentException.class, () -> documentService.getAllDocuments("bm90LWEtY3Vyc29y", 10));
+    }
+
+    @Test
+    public void testSearch_keepsRankOrderAndEscapesWildcards() {
+        LocalDateTime signedAt = LocalDateTime.of(2024, 3, 15, 10, 30);
+        DocumentSummary best = signedDocument(8L, signedAt);
+        DocumentSummary second = signedDocument(3L, signedAt);
+
+        DocumentRepository repository = mock(DocumentRepository.class);
+        when(repository.searchIds("100%_martin", "%100\\%\\_martin%", 3, 0)).thenReturn(List.of(8L, 3L, 5L));
+        when(repository.searchIds("100%_martin", "%100\\%\\_martin%", 3, 2)).thenReturn(List.of(5L));
+        // Rows come back in table order
+        when(repository.findSummariesByIdIn(List.of(8L, 3L))).thenReturn(List.of(second, best));
+
+        DocumentService documentService = new DocumentService();
+        ReflectionTestUtils.setField(documentService, "documentRepository", repository);
+        ReflectionTestUtils.setField(documentService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(documentService, "maxPageSize", 200);
+
+        DocumentPage page = documentService.search(" 100%_Martin ", null, null);
+        assertEquals(List.of(best, second), page.getItems());
+
+        documentService.search("100%_martin", page.getNextCursor(), null);
+        verify(repository).searchIds("100%_martin", "%100\\%\\_martin%", 3, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> documentService.search("ab", null, null));
+    }
+
+    private static DocumentSummary signedDocument(Long id, LocalDateTime signedAt) {
+        return new DocumentSummary(id, "document-" + id + ".pdf", 1024L, "application/pdf", true,
+            signedAt.minusDays(1), signedAt, "Martin", "CN=Signature", "SHA256withRSA");
+    }
+}
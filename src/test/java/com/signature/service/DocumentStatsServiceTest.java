@@ -0,0 +1,85 @@
+package com.signature.service;
+
+import com.signature.dto.DocumentStats;
+import com.signature.entity.Document;
+import com.signature.entity.User;
+import com.signature.repository.DocumentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DocumentStatsServiceTest {
+
+    @Test
+    public void testGetStats_loadsOnceThenFollowsUploadSignAndDelete() {
+        User user = new User("user1", "user1@example.com", "password", "User", "One");
+        user.setId(1L);
+        DocumentRepository repository = mock(DocumentRepository.class);
+        when(repository.countByUser(user)).thenReturn(new DocumentStats(3L, 1L));
+        when(repository.countAll()).thenReturn(new DocumentStats(10L, 4L));
+
+        DocumentStatsService statsService = new DocumentStatsService();
+        ReflectionTestUtils.setField(statsService, "documentRepository", repository);
+        ReflectionTestUtils.setField(statsService, "refreshInterval", Duration.ofHours(1));
+
+        assertEquals(3, statsService.getStats(user).getTotalDocuments());
+        assertEquals(10, statsService.getStats(null).getTotalDocuments());
+
+        Document document = new Document();
+        document.setUser(user);
+        statsService.documentAdded(document);
+        document.setIsSigned(true);
+        statsService.documentSigned(document);
+
+        DocumentStats stats = statsService.getStats(user);
+        assertEquals(4, stats.getTotalDocuments());
+        assertEquals(2, stats.getSignedDocuments());
+        assertEquals(2, stats.getUnsignedDocuments());
+
+        statsService.documentRemoved(document);
+        stats = statsService.getStats(null);
+        assertEquals(10, stats.getTotalDocuments());
+        assertEquals(4, stats.getSignedDocuments());
+
+        // Served from memory after the first load
+        verify(repository, times(1)).countByUser(user);
+        verify(repository, times(1)).countAll();
+    }
+
+    @Test
+    public void testGetStats_reloadsAfterRefreshInterval() {
+        DocumentRepository repository = mock(DocumentRepository.class);
+        when(repository.countAll()).thenReturn(new DocumentStats(2L, 0L), new DocumentStats(5L, 1L));
+
+        DocumentStatsService statsService = new DocumentStatsService();
+        ReflectionTestUtils.setField(statsService, "documentRepository", repository);
+        ReflectionTestUtils.setField(statsService, "refreshInterval", Duration.ZERO);
+
+        assertEquals(2, statsService.getStats(null).getTotalDocuments());
+        assertEquals(5, statsService.getStats(null).getTotalDocuments());
+    }
+
+    @Test
+    public void testGetStats_reloadsOnNextReadWhenUpdatedDuringLoad() {
+        DocumentRepository repository = mock(DocumentRepository.class);
+        DocumentStatsService statsService = new DocumentStatsService();
+        ReflectionTestUtils.setField(statsService, "documentRepository", repository);
+        ReflectionTestUtils.setField(statsService, "refreshInterval", Duration.ofHours(1));
+
+        // Un dépôt est validé pendant le premier chargement, après la lecture du total
+        when(repository.countAll()).thenAnswer(inv -> {
+            statsService.documentAdded(new Document());
+            return new DocumentStats(2L, 0L);
+        }).thenReturn(new DocumentStats(3L, 0L));
+
+        assertEquals(2, statsService.getStats(null).getTotalDocuments());
+        // Le dépôt n'est pas perdu jusqu'au prochain rafraîchissement périodique
+        assertEquals(3, statsService.getStats(null).getTotalDocuments());
+        assertEquals(3, statsService.getStats(null).getTotalDocuments());
+        verify(repository, times(2)).countAll();
+    }
+}
@@ -0,0 +1,84 @@
+package com.signature.service;
+
+import com.signature.entity.Document;
+import com.signature.repository.DocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class FileSystemDocumentStoreTest {
+
+    @TempDir
+    Path storageDir;
+
+    private FileSystemDocumentStore documentStore;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        documentStore = new FileSystemDocumentStore();
+        ReflectionTestUtils.setField(documentStore, "storagePath", storageDir.toString());
+        documentStore.init();
+    }
+
+    @Test
+    public void testPut_publishesUnderTwoLevelsOfDirectories() throws Exception {
+        Path temp = documentStore.createTempFile();
+        Files.writeString(temp, "%PDF-1.4");
+
+        documentStore.put("signed-42.pdf", temp);
+
+        Path stored = documentStore.getLocalPath("signed-42.pdf");
+        assertEquals(storageDir.toAbsolutePath().normalize(), stored.getParent().getParent().getParent());
+        assertEquals(2, stored.getParent().getFileName().toString().length());
+        assertEquals("%PDF-1.4", Files.readString(stored));
+        assertFalse(Files.exists(temp));
+        assertTrue(documentStore.exists("signed-42.pdf"));
+        assertTrue(documentStore.delete("signed-42.pdf"));
+        assertFalse(documentStore.exists("signed-42.pdf"));
+    }
+
+    @Test
+    public void testPut_rejectsPathLikeKeys() throws Exception {
+        Path temp = documentStore.createTempFile();
+        assertThrows(IllegalArgumentException.class, () -> documentStore.put("../escape.pdf", temp));
+        assertThrows(IllegalArgumentException.class, () -> documentStore.put("..", temp));
+    }
+
+    @Test
+    public void testMigrate_movesLegacyFilesAndRecordsKeys() throws Exception {
+        Path legacy = storageDir.resolve("legacy").resolve("1234_contrat.pdf");
+        Files.createDirectories(legacy.getParent());
+        Files.write(legacy, "contrat".getBytes(StandardCharsets.UTF_8));
+
+        Document document = new Document();
+        document.setId(7L);
+        document.setFilePath(legacy.toString());
+        // Legacy paths are still readable before the migration
+        assertEquals(legacy, documentStore.getLocalPath(document.getFilePath()));
+
+        DocumentRepository repository = mock(DocumentRepository.class);
+        when(repository.findTop500ByIdGreaterThanOrderByIdAsc(0L)).thenReturn(List.of(document));
+        when(repository.findTop500ByIdGreaterThanOrderByIdAsc(eq(7L))).thenReturn(List.of());
+        StorageMigrationService migrationService = new StorageMigrationService();
+        ReflectionTestUtils.setField(migrationService, "documentRepository", repository);
+        ReflectionTestUtils.setField(migrationService, "documentStore", documentStore);
+
+        assertEquals(1, migrationService.migrate());
+
+        assertEquals("1234_contrat.pdf", document.getFilePath());
+        assertFalse(Files.exists(legacy));
+        assertEquals("contrat", Files.readString(documentStore.getLocalPath("1234_contrat.pdf")));
+        verify(repository).save(any(Document.class));
+    }
+}
@@ -0,0 +1,26 @@
+package com.signature.service;
+
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Identités de signature générées en mémoire, à la place des fichiers PEM
+ */
+class MockSigningKeyProvider implements SigningKeyProvider {
+
+    private final List<SigningIdentity> identities = new ArrayList<>();
+
+    MockSigningKeyProvider(int keyCount) throws Exception {
+        for (int i = 0; i < keyCount; i++) {
+            KeyPair keyPair = TestCertificates.ecKeyPair();
+            identities.add(new SigningIdentity("key-" + i, keyPair.getPrivate(),
+                List.of(TestCertificates.selfSigned(keyPair, "SHA256withECDSA"))));
+        }
+    }
+
+    @Override
+    public List<SigningIdentity> loadIdentities() {
+        return identities;
+    }
+}
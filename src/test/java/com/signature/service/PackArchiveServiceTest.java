@@ -0,0 +1,111 @@
+package com.signature.service;
+
+import com.signature.entity.Document;
+import com.signature.entity.PackEntry;
+import com.signature.repository.DocumentRepository;
+import com.signature.repository.PackEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class PackArchiveServiceTest {
+
+    @TempDir
+    Path storageDir;
+
+    private final Map<Long, PackEntry> index = new HashMap<>();
+    private FileSystemDocumentStore documentStore;
+    private DocumentRepository documentRepository;
+    private PackArchiveService packArchiveService;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        documentStore = new FileSystemDocumentStore();
+        ReflectionTestUtils.setField(documentStore, "storagePath", storageDir.toString());
+        documentStore.init();
+
+        documentRepository = mock(DocumentRepository.class);
+        PackEntryRepository packEntryRepository = mock(PackEntryRepository.class);
+        when(packEntryRepository.save(any(PackEntry.class))).thenAnswer(inv -> {
+            PackEntry entry = inv.getArgument(0);
+            index.put(entry.getDocumentId(), entry);
+            return entry;
+        });
+        when(packEntryRepository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(index.get(inv.getArgument(0, Long.class))));
+
+        packArchiveService = new PackArchiveService();
+        ReflectionTestUtils.setField(packArchiveService, "documentRepository", documentRepository);
+        ReflectionTestUtils.setField(packArchiveService, "packEntryRepository", packEntryRepository);
+        ReflectionTestUtils.setField(packArchiveService, "documentStore", documentStore);
+        ReflectionTestUtils.setField(packArchiveService, "transactionTemplate", new TransactionTemplate(new NoOpTransactionManager()));
+        ReflectionTestUtils.setField(packArchiveService, "minAge", Duration.ofDays(90));
+        ReflectionTestUtils.setField(packArchiveService, "archivePath", storageDir.resolve("packs").toString());
+        ReflectionTestUtils.setField(packArchiveService, "maxPackSize", DataSize.ofMegabytes(64));
+        ReflectionTestUtils.setField(packArchiveService, "batchSize", 500);
+        packArchiveService.init();
+    }
+
+    @Test
+    public void testArchive_movesSignedFilesIntoPackAndReadsThemBack() throws Exception {
+        Document first = signedDocument(1L, "%PDF-1.4 premier contrat signé");
+        Document second = signedDocument(2L, "%PDF-1.4 second contrat signé");
+        when(documentRepository.findArchivable(any(LocalDateTime.class), eq(0L), any(Pageable.class))).thenReturn(List.of(first, second));
+        when(documentRepository.findArchivable(any(LocalDateTime.class), eq(2L), any(Pageable.class))).thenReturn(List.of());
+        when(documentRepository.updateSignedFilePath(1L, "signed-1.pdf", "pack:1")).thenReturn(1);
+        // Le second document est supprimé pendant l'archivage
+        when(documentRepository.updateSignedFilePath(2L, "signed-2.pdf", "pack:2")).thenReturn(0);
+
+        assertEquals(1, packArchiveService.archive());
+
+        assertFalse(documentStore.exists("signed-1.pdf"));
+        assertTrue(documentStore.exists("signed-2.pdf"));
+        assertFalse(index.containsKey(2L));
+
+        Resource archived = packArchiveService.getResource("pack:1");
+        byte[] expected = "%PDF-1.4 premier contrat signé".getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected.length, archived.contentLength());
+        try (InputStream in = archived.getInputStream()) {
+            assertArrayEquals(expected, in.readAllBytes());
+        }
+        // Les requêtes Range sautent directement à la position demandée
+        try (InputStream in = archived.getInputStream()) {
+            assertEquals(9, in.skip(9));
+            assertEquals("premier", new String(in.readNBytes(7), StandardCharsets.UTF_8));
+        }
+        assertTrue(Files.exists(storageDir.resolve("packs").resolve("pack-000001.pack")));
+        packArchiveService.close();
+    }
+
+    private Document signedDocument(Long id, String content) throws Exception {
+        Path temp = documentStore.createTempFile();
+        Files.writeString(temp, content);
+        documentStore.put("signed-" + id + ".pdf", temp);
+
+        Document document = new Document();
+        document.setId(id);
+        document.setIsSigned(true);
+        document.setSignedFilePath("signed-" + id + ".pdf");
+        document.setSignedAt(LocalDateTime.now().minusYears(1));
+        return document;
+    }
+}
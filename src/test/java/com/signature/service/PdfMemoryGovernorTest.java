@@ -0,0 +1,32 @@
+package com.signature.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfMemoryGovernorTest {
+
+    @Test
+    public void testReserve_capsLargeDocumentsAtMainMemory() throws Exception {
+        PdfMemoryGovernor governor = new PdfMemoryGovernor();
+        ReflectionTestUtils.setField(governor, "maxMainMemory", DataSize.ofMegabytes(16));
+        ReflectionTestUtils.setField(governor, "maxInFlightMemory", DataSize.ofMegabytes(256));
+        ReflectionTestUtils.setField(governor, "scratchPath", "");
+        ReflectionTestUtils.setField(governor, "acquireTimeout", Duration.ofMillis(100));
+        governor.init();
+
+        // Un scan de 300 Mo ne garde que max-main-memory sur le tas : le reste du budget reste disponible
+        try (PdfMemoryGovernor.Reservation scan = governor.reserve(DataSize.ofMegabytes(300).toBytes());
+             PdfMemoryGovernor.Reservation small = governor.reserve(DataSize.ofKilobytes(200).toBytes())) {
+            assertEquals(DataSize.ofMegabytes(256 - 16).toBytes() - DataSize.ofKilobytes(200).toBytes(),
+                governor.getAvailableBytes());
+            assertNotNull(scan);
+            assertNotNull(small);
+        }
+        assertEquals(DataSize.ofMegabytes(256).toBytes(), governor.getAvailableBytes());
+    }
+}
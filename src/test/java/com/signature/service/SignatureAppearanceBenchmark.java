@@ -0,0 +1,125 @@
+package com.signature.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.PDSignature;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureOptions;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.KeyPair;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Compare le coût d'une signature complète selon le cachet visuel utilisé : tracé direct
+ * dans le flux de la page (ancienne méthode) contre l'apparence du widget construite sur le cadre partagé.
+ * Lancement : {@code java -cp <classpath de test> com.signature.service.SignatureAppearanceBenchmark}
+ */
+public class SignatureAppearanceBenchmark {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        byte[] pdf;
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.save(out);
+            pdf = out.toByteArray();
+        }
+        SignatureAppearance appearance = new SignatureAppearance();
+        KeyPair keyPair = TestCertificates.rsaKeyPair();
+        SignerContext signerContext = new SignerContext(keyPair.getPrivate(),
+            List.of(TestCertificates.selfSigned(keyPair, "SHA256withRSA")), 1);
+
+        run("page content stream", () -> {
+            try (PDDocument document = Loader.loadPDF(pdf); SignatureOptions options = new SignatureOptions()) {
+                stampPageContent(document, "Jean Dupont");
+                return sign(document, options, signerContext, signature -> { });
+            }
+        });
+        run("shared frame appearance", () -> {
+            try (PDDocument document = Loader.loadPDF(pdf); SignatureOptions options = new SignatureOptions()) {
+                options.setPage(0);
+                return sign(document, options, signerContext,
+                    signature -> appearance.apply(document, signature, "Jean Dupont", LocalDateTime.now()));
+            }
+        });
+    }
+
+    private static void run(String name, Stamp stamp) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            stamp.apply();
+        }
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes += stamp.apply();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-28s %8.1f us/signature %8d bytes/signed file%n",
+            name, elapsed / 1000.0 / ITERATIONS, bytes / ITERATIONS);
+    }
+
+    private static int sign(PDDocument document, SignatureOptions options, SignerContext signerContext,
+                            Widget widget) throws IOException {
+        PDSignature signature = new PDSignature();
+        signature.setFilter(PDSignature.FILTER_ADOBE_PPKLITE);
+        signature.setSubFilter(PDSignature.SUBFILTER_ADBE_PKCS7_DETACHED);
+        signature.setSignDate(Calendar.getInstance());
+        options.setPreferredSignatureSize(SignatureOptions.DEFAULT_SIGNATURE_SIZE * 2);
+        document.addSignature(signature, new StreamingSignature(signerContext), options);
+        widget.apply(signature);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        document.saveIncremental(out);
+        return out.size();
+    }
+
+    /**
+     * Ancienne implémentation : polices créées et cachet entièrement retracé à chaque appel
+     */
+    private static void stampPageContent(PDDocument document, String signerName) throws IOException {
+        PDPage page = document.getPage(0);
+        try (PDPageContentStream contentStream = new PDPageContentStream(document, page,
+                PDPageContentStream.AppendMode.APPEND, true, true)) {
+            PDFont font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            PDFont boldFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+            contentStream.setStrokingColor(Color.BLACK);
+            contentStream.setLineWidth(1);
+            contentStream.addRect(50, 50, 200, 80);
+            contentStream.stroke();
+            contentStream.setNonStrokingColor(new Color(245, 245, 245));
+            contentStream.addRect(51, 51, 198, 78);
+            contentStream.fill();
+            contentStream.setNonStrokingColor(Color.BLACK);
+            String[] lines = {"Document signé numériquement", "Signataire: " + signerName,
+                "Date: " + LocalDateTime.now(), "Signature électronique certifiée"};
+            for (int i = 0; i < lines.length; i++) {
+                contentStream.beginText();
+                contentStream.setFont(i == 0 ? boldFont : font, i == 0 ? 10 : 8);
+                contentStream.newLineAtOffset(60, 110 - i * 15);
+                contentStream.showText(lines[i]);
+                contentStream.endText();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Stamp {
+        int apply() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface Widget {
+        void apply(PDSignature signature) throws IOException;
+    }
+}
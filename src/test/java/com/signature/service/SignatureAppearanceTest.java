@@ -0,0 +1,130 @@
+package com.signature.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationWidget;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceStream;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.PDSignature;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureOptions;
+import org.apache.pdfbox.pdmodel.interactive.form.PDSignatureField;
+import org.bouncycastle.cms.CMSProcessableByteArray;
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.cms.SignerInformation;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoVerifierBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SignatureAppearanceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSignedDocument_hasWidgetAppearanceAndUntouchedPageContent() throws Exception {
+        KeyPair keyPair = TestCertificates.rsaKeyPair();
+        X509Certificate certificate = TestCertificates.selfSigned(keyPair, "SHA256withRSA");
+        SignerContext signerContext = new SignerContext(keyPair.getPrivate(), List.of(certificate), 1);
+        SignatureAppearance appearance = new SignatureAppearance();
+
+        Path input = tempDir.resolve("input.pdf");
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.save(input.toFile());
+        }
+
+        // Signature avec le cachet posé sur le widget, comme dans SignatureService
+        ByteArrayOutputStream signed = new ByteArrayOutputStream();
+        try (PDDocument document = Loader.loadPDF(input.toFile());
+             SignatureOptions options = new SignatureOptions()) {
+            PDSignature signature = new PDSignature();
+            signature.setFilter(PDSignature.FILTER_ADOBE_PPKLITE);
+            signature.setSubFilter(PDSignature.SUBFILTER_ADBE_PKCS7_DETACHED);
+            signature.setSignDate(Calendar.getInstance());
+            options.setPage(0);
+            options.setPreferredSignatureSize(signerContext.getSignatureSize());
+            document.addSignature(signature, new StreamingSignature(signerContext, signerContext.getSignatureSize()), options);
+            appearance.apply(document, signature, "Jean Dupont", LocalDateTime.now());
+            document.saveIncremental(signed);
+        }
+
+        byte[] signedBytes = signed.toByteArray();
+        try (PDDocument document = Loader.loadPDF(signedBytes)) {
+            // Le cachet est porté par le widget, pas ajouté au flux de contenu de la page
+            assertFalse(document.getPage(0).hasContents());
+            PDSignatureField field = (PDSignatureField) document.getDocumentCatalog().getAcroForm().getFields().get(0);
+            PDAnnotationWidget widget = field.getWidgets().get(0);
+            assertEquals(200, widget.getRectangle().getWidth(), 0.01);
+            assertTrue(document.getPage(0).getAnnotations().stream()
+                .anyMatch(annotation -> annotation.getCOSObject() == widget.getCOSObject()));
+            PDAppearanceStream normal = widget.getAppearance().getNormalAppearance().getAppearanceStream();
+            assertNotNull(normal);
+            assertEquals(200, normal.getBBox().getWidth(), 0.01);
+
+            // Le cadre statique est un Form XObject référencé par l'apparence
+            PDXObject frame = normal.getResources().getXObject(COSName.getPDFName("Frm"));
+            assertInstanceOf(PDFormXObject.class, frame);
+            assertTrue(new String(((PDFormXObject) frame).getContents().readAllBytes(), StandardCharsets.ISO_8859_1)
+                .contains(" re"));
+            // Seuls le nom et la date sont écrits dans l'apparence propre au document
+            String operators = new String(normal.getContents().readAllBytes(), StandardCharsets.ISO_8859_1);
+            assertTrue(operators.startsWith("/Frm Do"), operators);
+            assertTrue(operators.contains("(Signataire: Jean Dupont) Tj"), operators);
+
+            // La signature CMS couvre bien les plages d'octets du fichier
+            PDSignature signature = document.getLastSignatureDictionary();
+            byte[] signedContent = signature.getSignedContent(signedBytes);
+            CMSSignedData cms = new CMSSignedData(new CMSProcessableByteArray(signedContent), signature.getContents(signedBytes));
+            SignerInformation signer = cms.getSignerInfos().getSigners().iterator().next();
+            assertTrue(signer.verify(new JcaSimpleSignerInfoVerifierBuilder().build(certificate)));
+
+            // Le champ /Contents est dimensionné sur la signature réelle, sans kilo-octets de zéros
+            byte[] contents = signature.getContents(signedBytes);
+            assertEquals(signerContext.getSignatureSize(), contents.length);
+            assertTrue(contents.length - cms.getEncoded().length <= 64 + 16);
+        }
+        assertTrue(Files.size(input) > 0);
+    }
+
+    @Test
+    public void testUndersizedPlaceholder_surfacesRequiredSize() throws Exception {
+        KeyPair keyPair = TestCertificates.rsaKeyPair();
+        SignerContext signerContext = new SignerContext(keyPair.getPrivate(),
+            List.of(TestCertificates.selfSigned(keyPair, "SHA256withRSA")), 1);
+
+        Path input = tempDir.resolve("input.pdf");
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.save(input.toFile());
+        }
+
+        // SignatureService relance la signature avec une réservation agrandie sur cette exception
+        try (PDDocument document = Loader.loadPDF(input.toFile()); SignatureOptions options = new SignatureOptions()) {
+            PDSignature signature = new PDSignature();
+            signature.setFilter(PDSignature.FILTER_ADOBE_PPKLITE);
+            signature.setSubFilter(PDSignature.SUBFILTER_ADBE_PKCS7_DETACHED);
+            options.setPreferredSignatureSize(256);
+            document.addSignature(signature, new StreamingSignature(signerContext, 256), options);
+            StreamingSignature.SignatureSizeExceededException e = assertThrows(
+                StreamingSignature.SignatureSizeExceededException.class,
+                () -> document.saveIncremental(new ByteArrayOutputStream()));
+            assertTrue(e.getRequiredSize() > 256);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.signature.service;
+
+import com.signature.entity.Document;
+import com.signature.entity.StoredBlob;
+import com.signature.repository.DocumentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SignatureServiceTest {
+
+    @Test
+    public void testCreateDocument_releasesBlobWhenSaveFails() {
+        DocumentRepository documentRepository = mock(DocumentRepository.class);
+        BlobStorageService blobStorageService = mock(BlobStorageService.class);
+        DocumentStatsService documentStatsService = mock(DocumentStatsService.class);
+        SignatureService signatureService = new SignatureService();
+        ReflectionTestUtils.setField(signatureService, "documentRepository", documentRepository);
+        ReflectionTestUtils.setField(signatureService, "blobStorageService", blobStorageService);
+        ReflectionTestUtils.setField(signatureService, "documentStatsService", documentStatsService);
+        ReflectionTestUtils.setField(signatureService, "thumbnailService", mock(ThumbnailService.class));
+
+        StoredBlob blob = new StoredBlob("abc123", 42L);
+        when(blobStorageService.blobKey("abc123")).thenReturn("abc123.pdf");
+        when(documentRepository.save(any(Document.class))).thenThrow(new DataIntegrityViolationException("contrainte"));
+
+        assertThrows(DataIntegrityViolationException.class,
+            () -> signatureService.createDocument("contrat.pdf", "application/pdf", blob));
+        // La référence prise par le stockage est rendue : le contenu pourra être purgé
+        verify(blobStorageService).release("abc123");
+        verify(documentStatsService, never()).documentAdded(any());
+    }
+}
@@ -0,0 +1,189 @@
+package com.signature.service;
+
+import com.signature.dto.SignatureVerification;
+import com.signature.dto.VerificationResult;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.PDSignature;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SignatureVerificationServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SignatureVerificationService verificationService;
+    private final List<X509Certificate> signingCertificates = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() throws Exception {
+        PdfMemoryGovernor governor = new PdfMemoryGovernor();
+        ReflectionTestUtils.setField(governor, "maxMainMemory", DataSize.ofMegabytes(16));
+        ReflectionTestUtils.setField(governor, "maxInFlightMemory", DataSize.ofMegabytes(64));
+        ReflectionTestUtils.setField(governor, "scratchPath", "");
+        ReflectionTestUtils.setField(governor, "acquireTimeout", Duration.ofSeconds(5));
+        governor.init();
+
+        verificationService = new SignatureVerificationService();
+        ReflectionTestUtils.setField(verificationService, "pdfMemoryGovernor", governor);
+        SignerContextProvider signerContextProvider = mock(SignerContextProvider.class);
+        when(signerContextProvider.getTrustAnchors()).thenAnswer(invocation -> List.copyOf(signingCertificates));
+        ReflectionTestUtils.setField(verificationService, "signerContextProvider", signerContextProvider);
+        ReflectionTestUtils.setField(verificationService, "cacheSize", 2);
+        ReflectionTestUtils.setField(verificationService, "certificatePath", "certificates/");
+        ReflectionTestUtils.setField(verificationService, "trustedCertificateFiles", new String[0]);
+        verificationService.init();
+    }
+
+    @Test
+    public void testVerify_validSignatureIsCachedByContentHash() throws Exception {
+        Path signed = signedPdf("SHA256withECDSA", TestCertificates.ecKeyPair());
+
+        VerificationResult result = verificationService.verify(signed);
+
+        assertTrue(result.isValid(), () -> String.valueOf(result.getSignatures()));
+        SignatureVerification signature = result.getSignatures().get(0);
+        assertTrue(signature.isCoversWholeDocument());
+        assertEquals("Jean Dupont", signature.getSignerName());
+        assertTrue(signature.getCertificateSubject().contains("CN=Test Signer"));
+
+        // Fichier inchangé : même résultat, servi depuis le cache
+        assertSame(result, verificationService.verify(signed));
+    }
+
+    @Test
+    public void testVerify_detectsTamperedContentAndUnsignedAppend() throws Exception {
+        Path signed = signedPdf("SHA256withRSA", TestCertificates.rsaKeyPair());
+        byte[] bytes = Files.readAllBytes(signed);
+
+        // Un octet modifié dans la première plage signée
+        byte[] tampered = bytes.clone();
+        tampered[20] = (byte) (tampered[20] == ' ' ? '\n' : ' ');
+        Path tamperedFile = Files.write(tempDir.resolve("tampered.pdf"), tampered);
+        VerificationResult tamperedResult = verificationService.verify(tamperedFile);
+        assertFalse(tamperedResult.isValid());
+        assertFalse(tamperedResult.getSignatures().get(0).isCmsValid());
+
+        // Contenu ajouté après la signature : la signature reste valide mais ne couvre plus le fichier
+        Path appended = Files.write(tempDir.resolve("appended.pdf"),
+            concat(bytes, "\n% unsigned\n".getBytes()));
+        VerificationResult appendedResult = verificationService.verify(appended);
+        assertTrue(appendedResult.getSignatures().get(0).isCmsValid());
+        assertFalse(appendedResult.getSignatures().get(0).isCoversWholeDocument());
+        assertFalse(appendedResult.isValid());
+    }
+
+    @Test
+    public void testVerify_rejectsUntrustedAndExpiredCertificates() throws Exception {
+        // Clé inconnue du service : la signature correspond au contenu mais n'est pas de confiance
+        KeyPair outsider = TestCertificates.rsaKeyPair();
+        Path untrusted = signedPdf("SHA256withRSA", new SignerContext(outsider.getPrivate(),
+            List.of(TestCertificates.selfSigned(outsider, "SHA256withRSA")), 1), Calendar.getInstance());
+        SignatureVerification untrustedSignature = verificationService.verify(untrusted).getSignatures().get(0);
+        assertTrue(untrustedSignature.isCmsValid());
+        assertFalse(untrustedSignature.isTrusted());
+        assertFalse(untrustedSignature.isValid());
+
+        // Clé du service, mais date de signature hors de la période de validité du certificat
+        KeyPair keyPair = TestCertificates.rsaKeyPair();
+        X509Certificate certificate = TestCertificates.selfSigned(keyPair, "SHA256withRSA");
+        signingCertificates.add(certificate);
+        Calendar beforeIssuance = Calendar.getInstance();
+        beforeIssuance.add(Calendar.YEAR, -1);
+        Path expired = signedPdf("SHA256withRSA", new SignerContext(keyPair.getPrivate(), List.of(certificate), 1),
+            beforeIssuance);
+        SignatureVerification expiredSignature = verificationService.verify(expired).getSignatures().get(0);
+        assertTrue(expiredSignature.isCmsValid());
+        assertTrue(expiredSignature.isTrusted());
+        assertFalse(expiredSignature.isCertificateValid());
+        assertFalse(expiredSignature.isValid());
+    }
+
+    @Test
+    public void testVerify_rejectsBytesSmuggledIntoTheContentsGap() throws Exception {
+        Path signed = signedPdf("SHA256withRSA", TestCertificates.rsaKeyPair());
+        byte[] bytes = Files.readAllBytes(signed);
+
+        // Octet de remplissage de /Contents remplacé : hors des plages signées, le trou n'est plus la chaîne /Contents
+        int[] byteRange;
+        try (PDDocument document = Loader.loadPDF(bytes)) {
+            byteRange = document.getLastSignatureDictionary().getByteRange();
+        }
+        byte[] tampered = bytes.clone();
+        tampered[byteRange[2] - 2] = ' ';
+        VerificationResult result = verificationService.verify(Files.write(tempDir.resolve("gap.pdf"), tampered));
+
+        assertFalse(result.isValid());
+        assertFalse(result.getSignatures().get(0).isByteRangeValid());
+    }
+
+    @Test
+    public void testVerify_unsignedPdfIsNotValid() throws Exception {
+        Path unsigned = tempDir.resolve("unsigned.pdf");
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.save(unsigned.toFile());
+        }
+
+        VerificationResult result = verificationService.verify(unsigned);
+
+        assertTrue(result.getSignatures().isEmpty());
+        assertFalse(result.isValid());
+    }
+
+    private Path signedPdf(String signatureAlgorithm, KeyPair keyPair) throws Exception {
+        X509Certificate certificate = TestCertificates.selfSigned(keyPair, signatureAlgorithm);
+        signingCertificates.add(certificate);
+        return signedPdf(signatureAlgorithm, new SignerContext(keyPair.getPrivate(), List.of(certificate), 1),
+            Calendar.getInstance());
+    }
+
+    private Path signedPdf(String signatureAlgorithm, SignerContext signerContext, Calendar signDate) throws Exception {
+        Path input = tempDir.resolve("input-" + System.nanoTime() + ".pdf");
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.save(input.toFile());
+        }
+        Path output = tempDir.resolve("signed-" + System.nanoTime() + ".pdf");
+        try (PDDocument document = Loader.loadPDF(input.toFile());
+             FileOutputStream out = new FileOutputStream(output.toFile());
+             SignatureOptions options = new SignatureOptions()) {
+            PDSignature signature = new PDSignature();
+            signature.setFilter(PDSignature.FILTER_ADOBE_PPKLITE);
+            signature.setSubFilter(PDSignature.SUBFILTER_ADBE_PKCS7_DETACHED);
+            signature.setName("Jean Dupont");
+            signature.setSignDate(signDate);
+            options.setPreferredSignatureSize(signerContext.getSignatureSize());
+            document.addSignature(signature, new StreamingSignature(signerContext), options);
+            document.saveIncremental(out);
+        }
+        return output;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package com.signature.service;
+
+import com.signature.dto.SigningKeyStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SignerContextProviderTest {
+
+    private SignerContextProvider provider;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        provider = new SignerContextProvider();
+        ReflectionTestUtils.setField(provider, "signingKeyProvider", new MockSigningKeyProvider(2));
+        ReflectionTestUtils.setField(provider, "signerPoolSize", 1);
+        ReflectionTestUtils.setField(provider, "maxConcurrencyPerKey", 1);
+        ReflectionTestUtils.setField(provider, "acquireTimeout", Duration.ofMillis(100));
+        provider.refresh();
+    }
+
+    @Test
+    public void testAcquire_spreadsLoadAndEnforcesPerKeyLimit() throws Exception {
+        try (SignerContextProvider.Lease first = provider.acquire();
+             SignerContextProvider.Lease second = provider.acquire()) {
+            // Une clé par signature en cours, puis plus aucune place
+            assertNotEquals(first.getKeyName(), second.getKeyName());
+            assertNotSame(first.getContext(), second.getContext());
+            assertThrows(RuntimeException.class, () -> provider.acquire());
+            first.succeeded();
+        }
+
+        try (SignerContextProvider.Lease lease = provider.acquire()) {
+            lease.succeeded();
+        }
+    }
+
+    @Test
+    public void testKeyStatuses_countSignaturesPerKey() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            try (SignerContextProvider.Lease lease = provider.acquire()) {
+                lease.getContext().signDigest(new byte[32]);
+                lease.succeeded();
+            }
+        }
+        try (SignerContextProvider.Lease lease = provider.acquire()) {
+            // Non marquée comme réussie : comptée en échec
+        }
+
+        List<SigningKeyStatus> statuses = provider.getKeyStatuses();
+        assertEquals(2, statuses.size());
+        assertEquals(4, statuses.stream().mapToLong(SigningKeyStatus::getSigned).sum());
+        assertEquals(1, statuses.stream().mapToLong(SigningKeyStatus::getFailed).sum());
+        // Les signatures séquentielles alternent entre les deux clés
+        statuses.forEach(status -> assertTrue(status.getSigned() >= 2));
+        statuses.forEach(status -> assertEquals(0, status.getInFlight()));
+    }
+}
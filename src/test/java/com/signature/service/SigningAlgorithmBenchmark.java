@@ -0,0 +1,68 @@
+package com.signature.service;
+
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+
+/**
+ * Compare le débit de signature CMS (signatures par seconde) selon l'algorithme de la clé :
+ * RSA 2048, ECDSA P-256 et Ed25519, sur un thread puis sur tous les cœurs.
+ * Lancement : {@code java -cp <classpath de test> com.signature.service.SigningAlgorithmBenchmark}
+ */
+public class SigningAlgorithmBenchmark {
+
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 5000;
+
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        run("SHA256withRSA", TestCertificates.rsaKeyPair(), threads);
+        run("SHA256withECDSA", TestCertificates.ecKeyPair(), threads);
+        run("Ed25519", TestCertificates.ed25519KeyPair(), threads);
+    }
+
+    private static void run(String signatureAlgorithm, KeyPair keyPair, int threads) throws Exception {
+        SignerContext signerContext = new SignerContext(keyPair.getPrivate(),
+            List.of(TestCertificates.selfSigned(keyPair, signatureAlgorithm)), threads);
+        byte[] digest = MessageDigest.getInstance(signerContext.getAlgorithm().getDigestAlgorithm())
+            .digest(new byte[1024]);
+
+        for (int i = 0; i < WARMUP; i++) {
+            signerContext.signDigest(digest);
+        }
+
+        long start = System.nanoTime();
+        int size = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            size = signerContext.signDigest(digest).length;
+        }
+        double singleThread = ITERATIONS / ((System.nanoTime() - start) / 1e9);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        signerContext.signDigest(digest);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double allThreads = (double) ITERATIONS * threads / ((System.nanoTime() - start) / 1e9);
+
+        System.out.printf("%-16s %9.0f sig/s (1 thread) %9.0f sig/s (%d threads) %6d bytes CMS%n",
+            signatureAlgorithm, singleThread, allThreads, threads, size);
+    }
+}
@@ -0,0 +1,50 @@
+package com.signature.service;
+
+import com.signature.entity.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SigningJobServiceTest {
+
+    private SigningJobService signingJobService;
+    private SignatureService signatureService;
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    public void setup() {
+        signatureService = mock(SignatureService.class);
+        executor = mock(ThreadPoolTaskExecutor.class);
+
+        signingJobService = new SigningJobService();
+        ReflectionTestUtils.setField(signingJobService, "signatureService", signatureService);
+        ReflectionTestUtils.setField(signingJobService, "signingJobExecutor", executor);
+        ReflectionTestUtils.setField(signingJobService, "retentionMinutes", 30L);
+        ReflectionTestUtils.setField(signingJobService, "sseTimeoutSeconds", 300L);
+    }
+
+    @Test
+    public void testSubmit_sharesInFlightJobOfSameDocument() throws Exception {
+        Document document = new Document();
+        document.setId(1L);
+
+        SigningJob first = signingJobService.submit(document, "Alice");
+        // Un second envoi pendant que la tâche attend ne relance pas de signature
+        assertSame(first, signingJobService.submit(document, "Alice"));
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor, times(1)).execute(task.capture());
+
+        task.getValue().run();
+        assertTrue(first.isFinished());
+        verify(signatureService).signDocument(same(document), eq("Alice"), any());
+
+        // Une fois la tâche terminée, une nouvelle demande crée une nouvelle tâche
+        assertNotSame(first, signingJobService.submit(document, "Alice"));
+    }
+}
@@ -0,0 +1,144 @@
+package com.signature.service;
+
+import com.signature.dto.StorageReclaimReport;
+import com.signature.entity.StoredBlob;
+import com.signature.repository.DocumentRepository;
+import com.signature.repository.StoredBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+public class StorageReclaimerTest {
+
+    private static final String BLOB_KEY = "a".repeat(64) + ".pdf";
+
+    @TempDir
+    Path storageDir;
+
+    private FileSystemDocumentStore documentStore;
+    private StorageReclaimer storageReclaimer;
+    private StorageMigrationService storageMigrationService;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        documentStore = new FileSystemDocumentStore();
+        ReflectionTestUtils.setField(documentStore, "storagePath", storageDir.toString());
+        documentStore.init();
+
+        DocumentRepository documentRepository = mock(DocumentRepository.class);
+        when(documentRepository.findFilePathsIn(anyCollection())).thenReturn(List.of());
+        when(documentRepository.findSignedFilePathsIn(anyCollection())).thenAnswer(inv ->
+            inv.getArgument(0, Collection.class).contains("signed-1.pdf") ? List.of("signed-1.pdf") : List.of());
+        StoredBlobRepository storedBlobRepository = mock(StoredBlobRepository.class);
+        StoredBlob referencedBlob = new StoredBlob("a".repeat(64), 3L);
+        referencedBlob.setRefCount(1);
+        when(storedBlobRepository.findAllById(anyIterable())).thenReturn(List.of(referencedBlob));
+
+        storageReclaimer = new StorageReclaimer();
+        ReflectionTestUtils.setField(storageReclaimer, "documentStore", documentStore);
+        ReflectionTestUtils.setField(storageReclaimer, "documentRepository", documentRepository);
+        ReflectionTestUtils.setField(storageReclaimer, "storedBlobRepository", storedBlobRepository);
+        ReflectionTestUtils.setField(storageReclaimer, "blobStorageService", new BlobStorageService());
+        storageMigrationService = new StorageMigrationService();
+        ReflectionTestUtils.setField(storageReclaimer, "storageMigrationService", storageMigrationService);
+        ReflectionTestUtils.setField(storageReclaimer, "mode", StorageReclaimer.Mode.DELETE);
+        ReflectionTestUtils.setField(storageReclaimer, "gracePeriod", Duration.ofHours(1));
+        ReflectionTestUtils.setField(storageReclaimer, "quarantineRetention", Duration.ofDays(7));
+        ReflectionTestUtils.setField(storageReclaimer, "uploadSessionTimeout", Duration.ofHours(1));
+        ReflectionTestUtils.setField(storageReclaimer, "shardsPerRun", documentStore.getShardCount());
+        ReflectionTestUtils.setField(storageReclaimer, "maxFilesPerSecond", 0);
+        ReflectionTestUtils.setField(storageReclaimer, "checkpointFile", storageDir.resolve("gc-checkpoint").toString());
+    }
+
+    @Test
+    public void testRun_deletesOldOrphansOnly() throws Exception {
+        Instant old = Instant.now().minus(Duration.ofDays(2));
+        Path orphan = store("signed-2.pdf", "orphelin", old);
+        Path signed = store("signed-1.pdf", "signé", old);
+        Path blob = store(BLOB_KEY, "contenu", old);
+        Path fresh = store("signed-3.pdf", "en cours", Instant.now());
+        Path staleTemp = documentStore.createTempFile();
+        Files.writeString(staleTemp, "interrompu");
+        Files.setLastModifiedTime(staleTemp, FileTime.from(old));
+
+        StorageReclaimReport report = storageReclaimer.run();
+
+        assertFalse(Files.exists(orphan));
+        assertFalse(Files.exists(staleTemp));
+        assertTrue(Files.exists(signed));
+        assertTrue(Files.exists(blob));
+        assertTrue(Files.exists(fresh));
+        assertEquals(4, report.getFilesScanned());
+        assertEquals(1, report.getOrphansFound());
+        assertEquals(1, report.getTemporaryFilesDeleted());
+        assertEquals("orphelin".length() + "interrompu".length(), report.getBytesReclaimed());
+        // Passage complet : le prochain repart du début
+        assertEquals(0, report.getNextShard());
+    }
+
+    @Test
+    public void testRun_quarantinesAndResumesFromCheckpoint() throws Exception {
+        ReflectionTestUtils.setField(storageReclaimer, "mode", StorageReclaimer.Mode.QUARANTINE);
+        ReflectionTestUtils.setField(storageReclaimer, "shardsPerRun", 100);
+        Path orphan = store("signed-2.pdf", "orphelin", Instant.now().minus(Duration.ofDays(2)));
+
+        StorageReclaimReport first = storageReclaimer.run();
+        StorageReclaimReport second = storageReclaimer.run();
+
+        assertEquals(0, first.getFirstShard());
+        assertEquals(100, first.getNextShard());
+        assertEquals(100, second.getFirstShard());
+        assertEquals(200, second.getNextShard());
+
+        storageReclaimer.run();
+        ReflectionTestUtils.setField(storageReclaimer, "shardsPerRun", documentStore.getShardCount());
+        StorageReclaimReport last = storageReclaimer.run();
+        assertFalse(Files.exists(orphan));
+        assertEquals(1, documentStore.listQuarantined().size());
+        assertEquals(0, last.getBytesReclaimed());
+    }
+
+    @Test
+    public void testRun_leavesMovedFilesAndWaitsForMigration() throws Exception {
+        // Fichier ancien publié par déplacement : le délai de grâce part de la publication
+        Path legacy = Files.writeString(storageDir.resolve("legacy.pdf"), "ancien");
+        Files.setLastModifiedTime(legacy, FileTime.from(Instant.now().minus(Duration.ofDays(30))));
+        documentStore.put("signed-2.pdf", legacy);
+        Path moved = documentStore.getLocalPath("signed-2.pdf");
+
+        storageReclaimer.run();
+        assertTrue(Files.exists(moved));
+
+        // Migration en cours : aucun passage
+        Files.setLastModifiedTime(moved, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        ((AtomicBoolean) ReflectionTestUtils.getField(storageMigrationService, "running")).set(true);
+        assertThrows(IllegalStateException.class, () -> storageReclaimer.run());
+        ReflectionTestUtils.setField(storageReclaimer, "enabled", true);
+        storageReclaimer.scheduledRun();
+        assertTrue(Files.exists(moved));
+    }
+
+    private Path store(String key, String content, Instant lastModified) throws Exception {
+        Path temp = documentStore.createTempFile();
+        Files.writeString(temp, content);
+        documentStore.put(key, temp);
+        Path stored = documentStore.getLocalPath(key);
+        Files.setLastModifiedTime(stored, FileTime.from(lastModified));
+        return stored;
+    }
+}
@@ -0,0 +1,141 @@
+package com.signature.service;
+
+import org.bouncycastle.cms.CMSProcessableByteArray;
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.cms.SignerInformation;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoVerifierBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingSignatureTest {
+
+    private X509Certificate certificate;
+    private StreamingSignature signature;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        KeyPair keyPair = TestCertificates.rsaKeyPair();
+        certificate = TestCertificates.selfSigned(keyPair, "SHA256withRSA");
+        signature = new StreamingSignature(new SignerContext(keyPair.getPrivate(), List.of(certificate), 2));
+    }
+
+    @Test
+    public void testSign_producesVerifiableDetachedSignature() throws Exception {
+        byte[] content = "contenu des plages d'octets".getBytes(StandardCharsets.UTF_8);
+
+        byte[] cms = signature.sign(new ByteArrayInputStream(content));
+
+        // La signature détachée doit se vérifier contre le contenu d'origine
+        CMSSignedData signedData = new CMSSignedData(new CMSProcessableByteArray(content), cms);
+        SignerInformation signer = signedData.getSignerInfos().getSigners().iterator().next();
+        assertTrue(signer.verify(new JcaSimpleSignerInfoVerifierBuilder().build(certificate)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SHA256withECDSA", "Ed25519"})
+    public void testSign_followsKeyAlgorithm(String signatureAlgorithm) throws Exception {
+        KeyPair keyPair = signatureAlgorithm.equals("Ed25519")
+            ? TestCertificates.ed25519KeyPair() : TestCertificates.ecKeyPair();
+        X509Certificate keyCertificate = TestCertificates.selfSigned(keyPair, signatureAlgorithm);
+        SignerContext signerContext = new SignerContext(keyPair.getPrivate(), List.of(keyCertificate), 1);
+        byte[] content = "contenu des plages d'octets".getBytes(StandardCharsets.UTF_8);
+
+        byte[] cms = new StreamingSignature(signerContext).sign(new ByteArrayInputStream(content));
+
+        assertEquals(signatureAlgorithm, signerContext.getSignatureAlgorithm());
+        CMSSignedData signedData = new CMSSignedData(new CMSProcessableByteArray(content), cms);
+        SignerInformation signer = signedData.getSignerInfos().getSigners().iterator().next();
+        assertEquals(signerContext.getAlgorithm().getDigestOid().getId(), signer.getDigestAlgOID());
+        assertTrue(signer.verify(new JcaSimpleSignerInfoVerifierBuilder().build(keyCertificate)));
+    }
+
+    @Test
+    public void testSign_rejectsSignatureLargerThanReservation() throws Exception {
+        KeyPair keyPair = TestCertificates.rsaKeyPair();
+        SignerContext signerContext = new SignerContext(keyPair.getPrivate(),
+            List.of(TestCertificates.selfSigned(keyPair, "SHA256withRSA")), 1);
+        byte[] content = "contenu".getBytes(StandardCharsets.UTF_8);
+
+        // La taille mesurée une fois suffit, la moitié non
+        int reserved = signerContext.getSignatureSize();
+        assertTrue(new StreamingSignature(signerContext, reserved).sign(new ByteArrayInputStream(content)).length <= reserved);
+        StreamingSignature.SignatureSizeExceededException e = assertThrows(
+            StreamingSignature.SignatureSizeExceededException.class,
+            () -> new StreamingSignature(signerContext, reserved / 2).sign(new ByteArrayInputStream(content)));
+        assertTrue(e.getRequiredSize() > reserved / 2);
+
+        // La réservation ne fait que grandir
+        assertEquals(reserved, signerContext.growSignatureSize(e.getRequiredSize()));
+        assertTrue(signerContext.growSignatureSize(reserved * 2) > reserved * 2);
+    }
+
+    @Test
+    public void testSign_memoryDoesNotGrowWithDocumentSize() throws Exception {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // Préchauffage : chargement des classes et des fournisseurs JCA
+        signature.sign(new SyntheticInputStream(1024 * 1024));
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        signature.sign(new SyntheticInputStream(1024 * 1024));
+        long smallDocument = threads.getThreadAllocatedBytes(threadId) - before;
+
+        before = threads.getThreadAllocatedBytes(threadId);
+        signature.sign(new SyntheticInputStream(256L * 1024 * 1024));
+        long largeDocument = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // 256 Mo signés sans que l'allocation ne suive la taille du contenu
+        assertTrue(largeDocument < 4 * 1024 * 1024,
+            "Allocated " + largeDocument + " bytes to sign 256 MB");
+        assertTrue(largeDocument < smallDocument + 1024 * 1024,
+            "Allocation grew from " + smallDocument + " to " + largeDocument + " bytes");
+    }
+
+    /**
+     * Flux synthétique de taille donnée qui ne conserve aucun octet en mémoire
+     */
+    private static final class SyntheticInputStream extends InputStream {
+
+        private long remaining;
+
+        SyntheticInputStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            return (int) (remaining & 0x7F);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = (int) Math.min(length, remaining);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) (remaining - i);
+            }
+            remaining -= count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.signature.service;
+
+import com.signature.entity.Document;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ThumbnailServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ThumbnailService thumbnailService;
+    private ThreadPoolTaskExecutor executor;
+    private PackArchiveService packArchiveService;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        PdfMemoryGovernor governor = new PdfMemoryGovernor();
+        ReflectionTestUtils.setField(governor, "maxMainMemory", DataSize.ofMegabytes(16));
+        ReflectionTestUtils.setField(governor, "maxInFlightMemory", DataSize.ofMegabytes(64));
+        ReflectionTestUtils.setField(governor, "scratchPath", "");
+        ReflectionTestUtils.setField(governor, "acquireTimeout", Duration.ofSeconds(5));
+        governor.init();
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+
+        Path pdf = tempDir.resolve("contrat.pdf");
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.save(pdf.toFile());
+        }
+        packArchiveService = mock(PackArchiveService.class);
+        when(packArchiveService.resolve(anyString())).thenReturn(new FileSystemResource(pdf));
+
+        thumbnailService = new ThumbnailService();
+        ReflectionTestUtils.setField(thumbnailService, "packArchiveService", packArchiveService);
+        ReflectionTestUtils.setField(thumbnailService, "pdfMemoryGovernor", governor);
+        ReflectionTestUtils.setField(thumbnailService, "thumbnailExecutor", executor);
+        ReflectionTestUtils.setField(thumbnailService, "cachePath", tempDir.resolve("thumbnails").toString());
+        ReflectionTestUtils.setField(thumbnailService, "cacheMaxSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(thumbnailService, "defaultWidth", 120);
+        ReflectionTestUtils.setField(thumbnailService, "maxWidth", 400);
+        ReflectionTestUtils.setField(thumbnailService, "maxHeight", 800);
+        ReflectionTestUtils.setField(thumbnailService, "renderTimeout", Duration.ofSeconds(30));
+        thumbnailService.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testGetThumbnail_rendersOnceThenServesFromCache() throws Exception {
+        Document document = document("a".repeat(64));
+
+        Path thumbnail = thumbnailService.getThumbnail(document, 2, 120);
+        BufferedImage image = ImageIO.read(thumbnail.toFile());
+        assertEquals(120, image.getWidth());
+        assertTrue(image.getHeight() > image.getWidth());
+
+        assertEquals(thumbnail, thumbnailService.getThumbnail(document, 2, 120));
+        verify(packArchiveService, times(1)).resolve(anyString());
+        assertThrows(IllegalArgumentException.class, () -> thumbnailService.getThumbnail(document, 3, 120));
+    }
+
+    @Test
+    public void testGetThumbnail_evictsLeastRecentlyUsedBeyondMaxSize() throws Exception {
+        Path first = thumbnailService.getThumbnail(document("a".repeat(64)), 1, 120);
+        ReflectionTestUtils.setField(thumbnailService, "cacheMaxSize", DataSize.ofBytes(Files.size(first)));
+
+        Path second = thumbnailService.getThumbnail(document("b".repeat(64)), 1, 120);
+
+        assertFalse(Files.exists(first));
+        assertTrue(Files.exists(second));
+    }
+
+    @Test
+    public void testGetThumbnail_boundsHeightOfNarrowPages() throws Exception {
+        // Page de 1 x 14400 points : mise à l'échelle sur la largeur seule, l'image ferait 1,7 million de pixels de haut
+        Path strip = tempDir.resolve("bande.pdf");
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(new PDRectangle(1, 14400)));
+            document.save(strip.toFile());
+        }
+        when(packArchiveService.resolve(anyString())).thenReturn(new FileSystemResource(strip));
+
+        BufferedImage image = ImageIO.read(thumbnailService.getThumbnail(document("c".repeat(64)), 1, 120).toFile());
+
+        assertEquals(800, image.getHeight());
+        assertTrue(image.getWidth() <= 120);
+    }
+
+    private static Document document(String contentHash) {
+        Document document = new Document();
+        document.setId(1L);
+        document.setFilePath(contentHash + ".pdf");
+        document.setContentHash(contentHash);
+        return document;
+    }
+}
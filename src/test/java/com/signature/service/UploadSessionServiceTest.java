@@ -0,0 +1,132 @@
+package com.signature.service;
+
+import com.signature.entity.Document;
+import com.signature.entity.StoredBlob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class UploadSessionServiceTest {
+
+    @TempDir
+    Path storageDir;
+
+    private UploadSessionService uploadSessionService;
+    private BlobStorageService blobStorageService;
+    private SignatureService signatureService;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        FileSystemDocumentStore documentStore = new FileSystemDocumentStore();
+        ReflectionTestUtils.setField(documentStore, "storagePath", storageDir.toString());
+        documentStore.init();
+        blobStorageService = mock(BlobStorageService.class);
+        signatureService = mock(SignatureService.class);
+
+        uploadSessionService = new UploadSessionService();
+        ReflectionTestUtils.setField(uploadSessionService, "documentStore", documentStore);
+        ReflectionTestUtils.setField(uploadSessionService, "blobStorageService", blobStorageService);
+        ReflectionTestUtils.setField(uploadSessionService, "signatureService", signatureService);
+        ReflectionTestUtils.setField(uploadSessionService, "maxSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(uploadSessionService, "sessionTimeout", Duration.ofHours(1));
+        ReflectionTestUtils.setField(uploadSessionService, "maxSessionsPerUser", 2);
+        ReflectionTestUtils.setField(uploadSessionService, "maxSessions", 3);
+    }
+
+    @Test
+    public void testChunks_resumeAfterInterruptedChunkAndCommitWithWholeFileHash() throws Exception {
+        byte[] content = "%PDF-1.4 contrat numérisé de plusieurs pages".getBytes(StandardCharsets.UTF_8);
+        UploadSession session = uploadSessionService.create("contrat.pdf", "application/pdf", content.length);
+
+        uploadSessionService.writeChunk(session, 0, 10, new ByteArrayInputStream(content, 0, 10));
+        // La connexion tombe au milieu du deuxième morceau : les octets reçus restent acquis
+        assertThrows(IOException.class, () -> uploadSessionService.writeChunk(session, 10, 20, failingAfter(content, 10, 5)));
+        assertEquals(15, session.getOffset());
+        // Un morceau qui ne reprend pas à la bonne position est refusé
+        assertThrows(IllegalStateException.class,
+            () -> uploadSessionService.writeChunk(session, 10, 5, new ByteArrayInputStream(content, 10, 5)));
+        assertThrows(IllegalStateException.class, () -> uploadSessionService.commit(session));
+
+        uploadSessionService.writeChunk(session, 15, content.length - 15, new ByteArrayInputStream(content, 15, content.length - 15));
+        assertTrue(session.isComplete());
+
+        String expectedHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        StoredBlob blob = new StoredBlob(expectedHash, (long) content.length);
+        Document document = new Document();
+        when(blobStorageService.storeFile(any(Path.class), eq(expectedHash), eq((long) content.length))).thenAnswer(inv -> {
+            assertArrayEquals(content, Files.readAllBytes(inv.getArgument(0, Path.class)));
+            return blob;
+        });
+        when(signatureService.createDocument("contrat.pdf", "application/pdf", blob)).thenReturn(document);
+
+        assertSame(document, uploadSessionService.commit(session));
+        assertTrue(uploadSessionService.getSession(session.getId()).isEmpty());
+        try (var temps = Files.list(storageDir.resolve("tmp"))) {
+            assertEquals(0, temps.count());
+        }
+    }
+
+    @Test
+    public void testCreate_rejectsFilesAboveMaxSize() {
+        assertThrows(IllegalArgumentException.class,
+            () -> uploadSessionService.create("scan.pdf", "application/pdf", DataSize.ofMegabytes(2).toBytes()));
+    }
+
+    @Test
+    public void testCreate_limitsOpenSessions() throws Exception {
+        UploadSession first = uploadSessionService.create("a.pdf", "application/pdf", 10);
+        uploadSessionService.create("b.pdf", "application/pdf", 10);
+        // Limite par utilisateur atteinte, jusqu'à ce qu'une session se termine
+        assertThrows(IllegalStateException.class, () -> uploadSessionService.create("c.pdf", "application/pdf", 10));
+        uploadSessionService.abort(first);
+        uploadSessionService.create("c.pdf", "application/pdf", 10);
+
+        // Limite globale : aucune nouvelle session, quel que soit l'utilisateur
+        ReflectionTestUtils.setField(uploadSessionService, "maxSessionsPerUser", 10);
+        uploadSessionService.create("d.pdf", "application/pdf", 10);
+        assertThrows(IllegalStateException.class, () -> uploadSessionService.create("e.pdf", "application/pdf", 10));
+    }
+
+    @Test
+    public void testDeleteOrphanedTemporaryFiles_removesFilesOfLostSessions() throws Exception {
+        Path orphan = uploadSessionService.create("contrat.pdf", "application/pdf", 10).getTempFile();
+        Files.writeString(orphan, "%PDF-1.4");
+
+        // Au redémarrage, la session en mémoire est perdue mais son fichier est encore sur disque
+        UploadSessionService restarted = new UploadSessionService();
+        ReflectionTestUtils.setField(restarted, "documentStore", ReflectionTestUtils.getField(uploadSessionService, "documentStore"));
+        restarted.deleteOrphanedTemporaryFiles();
+
+        assertFalse(Files.exists(orphan));
+    }
+
+    /**
+     * Flux qui fournit {@code available} octets puis échoue comme une connexion coupée
+     */
+    private static InputStream failingAfter(byte[] content, int offset, int available) {
+        InputStream brokenConnection = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+        return new SequenceInputStream(new ByteArrayInputStream(content, offset, available), brokenConnection);
+    }
+}